@@ -5,8 +5,19 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class ModernEventRegistrationApp extends JFrame {
 
@@ -27,14 +38,44 @@ public class ModernEventRegistrationApp extends JFrame {
     private static final Color TEXT_SECONDARY = new Color(75, 85, 99);      // Gray-600
     private static final Color BORDER_COLOR = new Color(229, 231, 235);     // Gray-200
 
-    private final Map<String, EventData> events = new HashMap<>();
-    private final Map<String, java.util.List<Registration>> registrations = new HashMap<>();
+    private final EventStore store;
+    private final RegistrationService registrationService;
+    private final NotificationDispatcher notificationDispatcher = createNotificationDispatcher();
+    private RegistrationIndex registrationIndex;
+    private FillRateTracker fillRateTracker;
+    private ReportEngine reportEngine;
+    private final EventViewCache eventViewCache = new EventViewCache(ROSTER_CACHE_SIZE, DETAILS_CACHE_SIZE);
+    private static final int REGISTRATIONS_PAGE_SIZE = 100;
+    private static final int ROSTER_CACHE_SIZE = 32;
+    private static final int DETAILS_CACHE_SIZE = 64;
+    private static final int TOAST_MILLIS = 3500;
+    private static final int ERROR_TOAST_MILLIS = 6000;
+
     private JTable participantsTable;
     private JComboBox<String> eventCombo;
     private CardLayout cardLayout;
     private JPanel mainContainer;
+    private final Map<String, java.util.function.Supplier<JPanel>> cardFactories = new java.util.LinkedHashMap<>();
+    private final java.util.Set<String> builtCards = new java.util.HashSet<>();
+    private final java.util.List<Runnable> viewRefreshers = new java.util.ArrayList<>();
+    private boolean refreshPending;
 
     public static void main(String[] args) {
+        // Headless rush/soak simulation: --load-test [key=value ...]
+        if (args.length > 0 && "--load-test".equals(args[0])) {
+            System.exit(LoadGenerator.run(java.util.Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        // Headless store checks: --conformance [stores=memory,file,shared,jdbc] [registrations=N]
+        if (args.length > 0 && "--conformance".equals(args[0])) {
+            System.exit(StoreConformance.run(java.util.Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        // Headless report export: --report [file.csv]; writes to standard output without a file
+        if (args.length > 0 && "--report".equals(args[0])) {
+            System.exit(exportReport(args.length > 1 ? args[1] : null));
+        }
+
         // Set system look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -42,13 +83,30 @@ public class ModernEventRegistrationApp extends JFrame {
             e.printStackTrace();
         }
 
+        // Opened before the EDT is involved: the file stores replay (and compact) their whole log here
+        long mainStarted = System.nanoTime();
+        EventStore store = createStore();
+        System.out.printf("Startup: opened store in %d ms%n", (System.nanoTime() - mainStarted) / 1_000_000);
         SwingUtilities.invokeLater(() -> {
-            ModernEventRegistrationApp app = new ModernEventRegistrationApp();
+            ModernEventRegistrationApp app = new ModernEventRegistrationApp(store);
+            app.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    System.out.printf("Startup: first frame after %d ms (JVM uptime %d ms)%n",
+                        (System.nanoTime() - mainStarted) / 1_000_000,
+                        java.lang.management.ManagementFactory.getRuntimeMXBean().getUptime());
+                    if (Boolean.parseBoolean(System.getProperty("eventregistration.prewarm", "true"))) {
+                        SwingUtilities.invokeLater(app::prewarmCards);
+                    }
+                }
+            });
             app.setVisible(true);
         });
     }
 
-    public ModernEventRegistrationApp() {
+    public ModernEventRegistrationApp(EventStore store) {
+        this.store = store;
+        this.registrationService = new RegistrationService(store);
         initializeUI();
         setupFrame();
         createCards();
@@ -62,14 +120,296 @@ public class ModernEventRegistrationApp extends JFrame {
         setLocationRelativeTo(null);
         setBackground(BACKGROUND);
         
-        // Add some sample data for demonstration
-        events.put("Tech Conference 2024", new EventData("Tech Conference 2024", "Computer Science Club", "2024-07-15", "Conference", 50));
-        events.put("Music Festival", new EventData("Music Festival", "Music Society", "2024-08-20", "Festival", 100));
-        events.put("Coding Workshop", new EventData("Coding Workshop", "Programming Club", "2024-07-10", "Workshop", 25));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                notificationDispatcher.close();
+                if (reportEngine != null) {
+                    reportEngine.close();
+                }
+                store.close();
+            }
+        });
+        registrationService.addListener(notificationDispatcher);
+        registrationService.addListener(eventViewCache);
+        registrationService.addListener(new RegistrationListener() {
+            @Override
+            public void eventCreated(EventData event) {
+                scheduleViewRefresh();
+            }
+
+            @Override
+            public void registered(String eventName, java.util.List<Registration> batch) {
+                scheduleViewRefresh();
+            }
+        });
+
+        // Keep the index and cached rosters in step with what the store holds on the heap
+        store.setTierListener(new TierListener() {
+            @Override
+            public void spilled(String eventName) {
+                runOnEdt(() -> {
+                    if (registrationIndex != null) {
+                        registrationIndex.removeEvent(eventName);
+                    }
+                    eventViewCache.invalidateEvent(eventName);
+                });
+            }
+
+            @Override
+            public void pagedIn(String eventName, java.util.List<Registration> registrations) {
+                runOnEdt(() -> {
+                    if (registrationIndex != null) {
+                        registrationIndex.addAll(registrations);
+                    }
+                    eventViewCache.invalidateEvent(eventName);
+                });
+            }
+        });
+
+        // Changes made by other operators arrive on the store's watcher thread; apply them on the EDT
+        store.setChangeListener(new RegistrationListener() {
+            @Override
+            public void eventCreated(EventData event) {
+                SwingUtilities.invokeLater(() -> registrationService.applyRemoteEvent(event));
+            }
+
+            // Bookings go into the schedule index straight away, so a registration retried after the
+            // store saw them is checked against them
+            @Override
+            public void registered(String eventName, java.util.List<Registration> batch) {
+                registrationService.recordRemoteBookings(eventName, batch);
+                SwingUtilities.invokeLater(() -> registrationService.applyRemoteRegistrations(eventName, batch));
+            }
+        });
         
-        // Initialize registration lists for each event
-        for (String eventName : events.keySet()) {
-            registrations.put(eventName, new java.util.ArrayList<>());
+        // Add some sample data for demonstration (persistent stores keep their own data)
+        if (store.getEventNames().isEmpty()) {
+            try {
+                addSampleEvents(store);
+            } catch (DuplicateEventException e) {
+                // Another operator sharing the store seeded it first
+            }
+        }
+    }
+
+    private static void runOnEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+
+    // Coalesces refreshes of the built cards into one EDT pass
+    private void scheduleViewRefresh() {
+        SwingUtilities.invokeLater(() -> {
+            if (refreshPending) {
+                return;
+            }
+            refreshPending = true;
+            SwingUtilities.invokeLater(() -> {
+                refreshPending = false;
+                for (Runnable refresher : viewRefreshers) {
+                    refresher.run();
+                }
+            });
+        });
+    }
+
+    // Adds events created since the combo was filled (locally or by another operator)
+    private void syncEventItems(JComboBox<String> combo) {
+        java.util.Set<String> present = new java.util.HashSet<>();
+        for (int i = 0; i < combo.getItemCount(); i++) {
+            present.add(combo.getItemAt(i));
+        }
+        for (String eventName : store.getEventNames()) {
+            if (!present.contains(eventName)) {
+                combo.addItem(eventName);
+            }
+        }
+    }
+
+    private static void addSampleEvents(EventStore store) {
+        store.addEvent(new EventData("Tech Conference 2024", "Computer Science Club", "2024-07-15", "09:00", "17:00", "Conference", 50));
+        store.addEvent(new EventData("Music Festival", "Music Society", "2024-08-20", "18:00", "23:00", "Festival", 100));
+        store.addEvent(new EventData("Coding Workshop", "Programming Club", "2024-07-10", "10:00", "13:00", "Workshop", 25));
+    }
+
+    // All events read the live index directly; single-event rosters come from the LRU cache
+    private java.util.List<Registration> registrationsView(SortKey sortKey, String eventName) {
+        if (eventName == null) {
+            return getRegistrationIndex().view(sortKey, null);
+        }
+        return eventViewCache.getRoster(eventName, sortKey, () -> {
+            RegistrationIndex index = getRegistrationIndex();
+            if (!store.isResident(eventName)) {
+                // Pages the event back in; the tier listener adds its registrations to the index
+                store.getRegistrations(eventName);
+            }
+            return index.view(sortKey, eventName);
+        });
+    }
+
+    // key=value arguments of the headless modes
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                System.err.println("Ignoring option without '=': " + arg);
+                continue;
+            }
+            options.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        return options;
+    }
+
+    private static int exportReport(String fileName) {
+        EventStore store = createStore();
+        ReportEngine engine = new ReportEngine(store, reportParallelism());
+        try {
+            Report report = engine.generate();
+            if (fileName == null) {
+                ReportEngine.writeCsv(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), report);
+            } else {
+                try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+                    ReportEngine.writeCsv(out, report);
+                }
+                System.out.printf("Report: %d events, %d clubs, %d event types in %d ms -> %s%n", report.getEventsCovered(),
+                    report.getByClub().size(), report.getByType().size(), report.getElapsedMillis(), fileName);
+            }
+            return 0;
+        } catch (IOException | StoreException e) {
+            System.err.println("Report failed: " + e.getMessage());
+            return 1;
+        } finally {
+            engine.close();
+            store.close();
+        }
+    }
+
+    private static int reportParallelism() {
+        return Integer.getInteger("eventregistration.report.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+
+    // Built by prewarmCards off the EDT, or on first use if a card needs it sooner; EDT only
+    private RegistrationIndex getRegistrationIndex() {
+        if (registrationIndex == null) {
+            installDerivedData(readDerivedData());
+        }
+        return registrationIndex;
+    }
+
+    private ReportEngine getReportEngine() {
+        if (reportEngine == null) {
+            reportEngine = new ReportEngine(store, reportParallelism());
+        }
+        return reportEngine;
+    }
+
+    private FillRateTracker getFillRateTracker() {
+        if (fillRateTracker == null) {
+            installDerivedData(readDerivedData());
+        }
+        return fillRateTracker;
+    }
+
+    // Reads every event into a new index and tracker; only reads the store, so it is safe off the EDT
+    private DerivedData readDerivedData() {
+        DerivedData data = new DerivedData();
+        for (EventData event : store.getEvents()) {
+            data.versions.put(event.getEventName(), event.getVersion());
+            loadEvent(data, event.getEventName());
+        }
+        return data;
+    }
+
+    private void loadEvent(DerivedData data, String eventName) {
+        data.tracker.seedEvent(eventName, store);
+        // Spilled events stay on disk until viewed
+        if (store.isResident(eventName)) {
+            data.resident.add(eventName);
+            java.util.List<Registration> registrations = new java.util.ArrayList<>();
+            store.forEachRegistration(eventName, registrations::add);
+            data.index.addAll(registrations);
+        }
+    }
+
+    // EDT only, where registrations commit: events whose version or residency changed after they
+    // were read are read again before the index and tracker start listening
+    private void installDerivedData(DerivedData data) {
+        if (registrationIndex != null && fillRateTracker != null) {
+            // A card needed them before the background read finished
+            return;
+        }
+        for (EventData event : store.getEvents()) {
+            String eventName = event.getEventName();
+            Long version = data.versions.get(eventName);
+            if (version == null || version != event.getVersion() || data.resident.contains(eventName) != store.isResident(eventName)) {
+                data.index.removeEvent(eventName);
+                data.resident.remove(eventName);
+                loadEvent(data, eventName);
+            }
+        }
+        if (registrationIndex == null) {
+            registrationIndex = data.index;
+            registrationService.addListener(registrationIndex);
+        }
+        if (fillRateTracker == null) {
+            fillRateTracker = data.tracker;
+            registrationService.addListener(fillRateTracker);
+        }
+    }
+
+    // Picks where confirmations go from -Deventregistration.notify.sink=log|file
+    private static NotificationDispatcher createNotificationDispatcher() {
+        String type = System.getProperty("eventregistration.notify.sink", "log");
+        NotificationSink sink;
+        switch (type) {
+            case "log":
+                sink = new LoggingNotificationSink();
+                break;
+            case "file":
+                sink = new FileNotificationSink(Paths.get(System.getProperty("eventregistration.notify.file", "notifications.out")));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown notification sink: " + type);
+        }
+        return new NotificationDispatcher(sink, Integer.getInteger("eventregistration.notify.workers", 2));
+    }
+
+    // Picks the storage backend from -Deventregistration.store=memory|file|shared|jdbc
+    private static EventStore createStore() {
+        EventStore store = openStore(System.getProperty("eventregistration.store", "memory"));
+
+        // -Deventregistration.heapBudgetMb caps the heap used by registrations; colder events spill to disk
+        long budgetMb = Long.getLong("eventregistration.heapBudgetMb", 0);
+        if (budgetMb > 0) {
+            if (store instanceof InMemoryEventStore) {
+                ((InMemoryEventStore) store).enableSpill(budgetMb * 1024 * 1024,
+                    Paths.get(System.getProperty("eventregistration.spill.dir", "spill")));
+            } else {
+                System.err.println("Ignoring heap budget: this store does not keep registrations in memory");
+            }
+        }
+        return store;
+    }
+
+    private static EventStore openStore(String type) {
+        switch (type) {
+            case "memory":
+                return new InMemoryEventStore();
+            case "file":
+                return new FileEventStore(Paths.get(System.getProperty("eventregistration.store.file", "event-registration.log")));
+            case "shared":
+                return new SharedFileEventStore(Paths.get(System.getProperty("eventregistration.store.file", "event-registration-shared.log")));
+            case "jdbc":
+                return new JdbcEventStore(
+                    System.getProperty("eventregistration.jdbc.url", "jdbc:h2:./event-registration"),
+                    Integer.getInteger("eventregistration.jdbc.poolSize", 4));
+            default:
+                throw new IllegalArgumentException("Unknown store type: " + type);
         }
     }
 
@@ -84,17 +424,73 @@ public class ModernEventRegistrationApp extends JFrame {
         mainContainer = new JPanel(cardLayout);
         mainContainer.setBackground(BACKGROUND);
         
-        mainContainer.add(createMainMenuPanel(), "MAIN");
-        mainContainer.add(createEventPanel(), "CREATE");
-        mainContainer.add(createRegistrationPanel(), "REGISTER");
-        mainContainer.add(createEventsListPanel(), "EVENTS");
-        mainContainer.add(createRegistrationsPanel(), "REGISTRATIONS");
+        // Cards are built on first navigation (or by prewarmCards once the menu is showing)
+        cardFactories.put("MAIN", this::createMainMenuPanel);
+        cardFactories.put("CREATE", this::createEventPanel);
+        cardFactories.put("REGISTER", this::createRegistrationPanel);
+        cardFactories.put("EVENTS", this::createEventsListPanel);
+        cardFactories.put("REGISTRATIONS", this::createRegistrationsPanel);
+        cardFactories.put("ANALYTICS", this::createAnalyticsPanel);
+        cardFactories.put("REPORTS", this::createReportsPanel);
         
         setContentPane(mainContainer);
     }
 
+    // Marked as built only once the panel is in place, so a factory that throws is retried next time
+    private void ensureCard(String name) {
+        if (!builtCards.contains(name)) {
+            mainContainer.add(cardFactories.get(name).get(), name);
+            builtCards.add(name);
+        }
+    }
+
+    private void showCard(String name) {
+        ensureCard(name);
+        cardLayout.show(mainContainer, name);
+    }
+
+    // Reads the registration index and fill-rate tracker on a background thread, then builds the
+    // remaining cards one per EDT turn so the UI stays responsive while they load
+    private void prewarmCards() {
+        long started = System.nanoTime();
+        java.util.concurrent.CompletableFuture.supplyAsync(this::readDerivedData)
+            .whenComplete((data, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    System.err.println("Startup: could not preload registrations: " + error.getCause().getMessage());
+                } else {
+                    installDerivedData(data);
+                }
+                System.out.printf("Startup: preloaded registrations in %d ms%n", (System.nanoTime() - started) / 1_000_000);
+                buildRemainingCards(started);
+            }));
+    }
+
+    private void buildRemainingCards(long started) {
+        java.util.Iterator<String> pending = new java.util.ArrayList<>(cardFactories.keySet()).iterator();
+        Runnable buildNext = new Runnable() {
+            @Override
+            public void run() {
+                while (pending.hasNext()) {
+                    String name = pending.next();
+                    if (!builtCards.contains(name)) {
+                        try {
+                            ensureCard(name);
+                        } catch (RuntimeException e) {
+                            // Left for showCard to build (and report) when the screen is opened
+                            System.err.println("Startup: could not prewarm " + name + ": " + e.getMessage());
+                        }
+                        SwingUtilities.invokeLater(this);
+                        return;
+                    }
+                }
+                System.out.printf("Startup: prewarmed all cards in %d ms%n", (System.nanoTime() - started) / 1_000_000);
+            }
+        };
+        buildNext.run();
+    }
+
     private void showMainMenu() {
-        cardLayout.show(mainContainer, "MAIN");
+        showCard("MAIN");
     }
 
     private JPanel createMainMenuPanel() {
@@ -137,10 +533,14 @@ public class ModernEventRegistrationApp extends JFrame {
         JButton viewEventsBtn = createModernButton("📊 View All Events", "Browse and manage existing events", WARNING_COLOR, WARNING_HOVER);
         JButton viewRegistrationsBtn = createModernButton("👥 View Registrations", "See who's registered for events", NEUTRAL_COLOR, NEUTRAL_HOVER);
 
-        createEventBtn.addActionListener(e -> cardLayout.show(mainContainer, "CREATE"));
-        registerBtn.addActionListener(e -> cardLayout.show(mainContainer, "REGISTER"));
-        viewEventsBtn.addActionListener(e -> cardLayout.show(mainContainer, "EVENTS"));
-        viewRegistrationsBtn.addActionListener(e -> cardLayout.show(mainContainer, "REGISTRATIONS"));
+        createEventBtn.addActionListener(e -> showCard("CREATE"));
+        registerBtn.addActionListener(e -> showCard("REGISTER"));
+        viewEventsBtn.addActionListener(e -> showCard("EVENTS"));
+        JButton analyticsBtn = createModernButton("📈 Capacity Analytics", "See how quickly events are filling up", PRIMARY_COLOR, PRIMARY_HOVER);
+        viewRegistrationsBtn.addActionListener(e -> showCard("REGISTRATIONS"));
+        analyticsBtn.addActionListener(e -> showCard("ANALYTICS"));
+        JButton reportsBtn = createModernButton("🗂 Club & Type Reports", "Summaries by club and event type", SUCCESS_COLOR, SUCCESS_HOVER);
+        reportsBtn.addActionListener(e -> showCard("REPORTS"));
 
         buttonsPanel.add(createEventBtn);
         buttonsPanel.add(Box.createVerticalStrut(15));
@@ -149,6 +549,10 @@ public class ModernEventRegistrationApp extends JFrame {
         buttonsPanel.add(viewEventsBtn);
         buttonsPanel.add(Box.createVerticalStrut(15));
         buttonsPanel.add(viewRegistrationsBtn);
+        buttonsPanel.add(Box.createVerticalStrut(15));
+        buttonsPanel.add(analyticsBtn);
+        buttonsPanel.add(Box.createVerticalStrut(15));
+        buttonsPanel.add(reportsBtn);
 
         panel.add(headerPanel);
         panel.add(Box.createVerticalStrut(40));
@@ -177,7 +581,7 @@ public class ModernEventRegistrationApp extends JFrame {
 
         JComboBox<String> eventFilterCombo = new JComboBox<>();
         eventFilterCombo.addItem("All Events");
-        for (String eventName : events.keySet()) {
+        for (String eventName : store.getEventNames()) {
             eventFilterCombo.addItem(eventName);
         }
         eventFilterCombo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
@@ -194,48 +598,54 @@ public class ModernEventRegistrationApp extends JFrame {
             BorderFactory.createEmptyBorder(20, 20, 20, 20)
         ));
 
-        String[] columnNames = {"Student Name", "Roll Number", "Event Name", "Registration Date"};
-        DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        // Populate table with all registrations
-        for (Map.Entry<String, java.util.List<Registration>> entry : registrations.entrySet()) {
-            for (Registration reg : entry.getValue()) {
-                tableModel.addRow(new Object[]{
-                    reg.getStudentName(),
-                    reg.getRollNumber(),
-                    reg.getEventName(),
-                    reg.getRegistrationDate()
-                });
-            }
-        }
+        RegistrationPageModel tableModel = new RegistrationPageModel(REGISTRATIONS_PAGE_SIZE);
+        tableModel.setRows(registrationsView(tableModel.getSortKey(), null));
 
         JTable table = new JTable(tableModel);
         styleTable(table);
 
-        // Add filter functionality
-        eventFilterCombo.addActionListener(e -> {
+        JLabel pageLabel = new JLabel();
+        pageLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        pageLabel.setForeground(TEXT_SECONDARY);
+
+        // Reloads the current page from the pre-sorted index; nothing is copied for "All Events"
+        Runnable reloadTable = () -> {
             String selectedFilter = (String) eventFilterCombo.getSelectedItem();
-            tableModel.setRowCount(0);
-            
-            for (Map.Entry<String, java.util.List<Registration>> entry : registrations.entrySet()) {
-                if ("All Events".equals(selectedFilter) || selectedFilter.equals(entry.getKey())) {
-                    for (Registration reg : entry.getValue()) {
-                        tableModel.addRow(new Object[]{
-                            reg.getStudentName(),
-                            reg.getRollNumber(),
-                            reg.getEventName(),
-                            reg.getRegistrationDate()
-                        });
-                    }
+            String eventName = "All Events".equals(selectedFilter) ? null : selectedFilter;
+            tableModel.setRows(registrationsView(tableModel.getSortKey(), eventName));
+            for (int i = 0; i < table.getColumnCount(); i++) {
+                table.getColumnModel().getColumn(i).setHeaderValue(tableModel.getColumnName(i));
+            }
+            table.getTableHeader().repaint();
+            int archived = eventName == null ? store.getSpilledRegistrationCount() : 0;
+            pageLabel.setText("Page " + (tableModel.getPage() + 1) + " of " + tableModel.getPageCount()
+                + " (" + tableModel.getTotalRows() + " registrations"
+                + (archived > 0 ? ", " + archived + " more archived on disk: filter by event to load them" : "") + ")");
+        };
+        reloadTable.run();
+        viewRefreshers.add(() -> {
+            syncEventItems(eventFilterCombo);
+            reloadTable.run();
+        });
+
+        // Sort by clicking a column header; clicking the same header again reverses the order
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    tableModel.sortBy(SortKey.values()[table.convertColumnIndexToModel(column)]);
+                    reloadTable.run();
                 }
             }
         });
 
+        // Add filter functionality
+        eventFilterCombo.addActionListener(e -> {
+            tableModel.setPage(0);
+            reloadTable.run();
+        });
+
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.getViewport().setBackground(CARD_BG);
@@ -246,124 +656,402 @@ public class ModernEventRegistrationApp extends JFrame {
 
         JButton backButton = createSecondaryButton("Back to Menu");
         JButton refreshButton = createPrimaryButton("Refresh");
+        JButton previousButton = createSecondaryButton("< Previous");
+        JButton nextButton = createSecondaryButton("Next >");
 
         backButton.addActionListener(e -> showMainMenu());
-        refreshButton.addActionListener(e -> {
-            // Refresh table data
-            String selectedFilter = (String) eventFilterCombo.getSelectedItem();
-            tableModel.setRowCount(0);
-            
-            for (Map.Entry<String, java.util.List<Registration>> entry : registrations.entrySet()) {
-                if ("All Events".equals(selectedFilter) || selectedFilter.equals(entry.getKey())) {
-                    for (Registration reg : entry.getValue()) {
-                        tableModel.addRow(new Object[]{
-                            reg.getStudentName(),
-                            reg.getRollNumber(),
-                            reg.getEventName(),
-                            reg.getRegistrationDate()
-                        });
-                    }
-                }
-            }
+        refreshButton.addActionListener(e -> reloadTable.run());
+        previousButton.addActionListener(e -> {
+            tableModel.setPage(tableModel.getPage() - 1);
+            reloadTable.run();
+        });
+        nextButton.addActionListener(e -> {
+            tableModel.setPage(tableModel.getPage() + 1);
+            reloadTable.run();
         });
 
         buttonsPanel.add(backButton);
         buttonsPanel.add(Box.createHorizontalStrut(10));
         buttonsPanel.add(refreshButton);
+        buttonsPanel.add(Box.createHorizontalStrut(30));
+        buttonsPanel.add(previousButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(nextButton);
+        buttonsPanel.add(Box.createHorizontalStrut(15));
+        buttonsPanel.add(pageLabel);
 
         tablePanel.add(scrollPane, BorderLayout.CENTER);
-        tablePanel.add(Box.createVerticalStrut(20), BorderLayout.SOUTH);
         tablePanel.add(buttonsPanel, BorderLayout.SOUTH);
 
-        panel.add(headerPanel, BorderLayout.NORTH);
-        panel.add(Box.createVerticalStrut(20), BorderLayout.CENTER);
-        panel.add(controlsPanel, BorderLayout.CENTER);
-        panel.add(Box.createVerticalStrut(10), BorderLayout.CENTER);
+        JPanel northPanel = new JPanel(new BorderLayout(0, 10));
+        northPanel.setBackground(BACKGROUND);
+        northPanel.add(headerPanel, BorderLayout.NORTH);
+        northPanel.add(controlsPanel, BorderLayout.SOUTH);
+
+        panel.add(northPanel, BorderLayout.NORTH);
         panel.add(tablePanel, BorderLayout.CENTER);
 
         return panel;
     }
 
-    private JPanel createStatsPanel() {
-        JPanel statsPanel = new JPanel(new GridLayout(1, 3, 20, 0));
-        statsPanel.setBackground(BACKGROUND);
-        statsPanel.setMaximumSize(new Dimension(600, 100));
+    private JPanel createAnalyticsPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(BACKGROUND);
+        panel.setBorder(BorderFactory.createEmptyBorder(40, 60, 40, 60));
 
-        int totalEvents = events.size();
-        int totalSlots = events.values().stream().mapToInt(EventData::getAvailableSlots).sum();
-        int totalRegistered = events.values().stream().mapToInt(e -> e.getInitialSlots() - e.getAvailableSlots()).sum();
+        // Header
+        JPanel headerPanel = createHeaderPanel("Capacity Analytics", "Track how quickly each event is filling up");
 
-        statsPanel.add(createStatCard("Total Events", String.valueOf(totalEvents), PRIMARY_COLOR));
-        statsPanel.add(createStatCard("Available Slots", String.valueOf(totalSlots), SUCCESS_COLOR));
-        statsPanel.add(createStatCard("Registrations", String.valueOf(totalRegistered), WARNING_COLOR));
+        // Controls panel
+        JPanel controlsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlsPanel.setBackground(BACKGROUND);
 
-        return statsPanel;
-    }
+        JLabel eventLabel = new JLabel("Event:");
+        eventLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        eventLabel.setForeground(TEXT_PRIMARY);
 
-    private JPanel createStatCard(String title, String value, Color accentColor) {
-        JPanel card = new JPanel();
-        card.setLayout(new BorderLayout());
-        card.setBackground(CARD_BG);
-        card.setBorder(BorderFactory.createCompoundBorder(
+        JComboBox<String> analyticsEventCombo = new JComboBox<>();
+        for (String eventName : store.getEventNames()) {
+            analyticsEventCombo.addItem(eventName);
+        }
+        analyticsEventCombo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+
+        JComboBox<String> rangeCombo = new JComboBox<>(new String[]{"Last hour", "Last 6 hours", "Last 24 hours"});
+        rangeCombo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        int[] rangeMinutes = {60, 360, FillRateTracker.BUCKETS};
+
+        controlsPanel.add(eventLabel);
+        controlsPanel.add(Box.createHorizontalStrut(10));
+        controlsPanel.add(analyticsEventCombo);
+        controlsPanel.add(Box.createHorizontalStrut(20));
+        controlsPanel.add(rangeCombo);
+
+        // Chart card
+        JPanel chartPanel = new JPanel(new BorderLayout(0, 15));
+        chartPanel.setBackground(CARD_BG);
+        chartPanel.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createLineBorder(BORDER_COLOR, 1),
             BorderFactory.createEmptyBorder(20, 20, 20, 20)
         ));
 
-        JLabel valueLabel = new JLabel(value);
-        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        valueLabel.setForeground(accentColor);
-        valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        FillRateChart chart = new FillRateChart();
+
+        JPanel summaryPanel = new JPanel(new GridLayout(1, 3, 20, 0));
+        summaryPanel.setBackground(CARD_BG);
+        JLabel filledLabel = new JLabel();
+        JLabel rateLabel = new JLabel();
+        JLabel projectionLabel = new JLabel();
+        for (JLabel label : new JLabel[]{filledLabel, rateLabel, projectionLabel}) {
+            label.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+            label.setForeground(TEXT_SECONDARY);
+            summaryPanel.add(label);
+        }
 
-        JLabel titleLabel = new JLabel(title);
-        titleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        titleLabel.setForeground(TEXT_SECONDARY);
-        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        Runnable refreshChart = () -> {
+            EventData event = store.getEvent((String) analyticsEventCombo.getSelectedItem());
+            if (event == null) {
+                chart.setCurve(new int[0], 1);
+                return;
+            }
+            int minutes = rangeMinutes[rangeCombo.getSelectedIndex()];
+            int registered = event.getInitialSlots() - event.getAvailableSlots();
+            double rate = getFillRateTracker().ratePerMinute(event.getEventName(), FillRateTracker.RATE_WINDOW);
+
+            chart.setCurve(getFillRateTracker().fillCurve(event.getEventName(), minutes), event.getInitialSlots());
+            filledLabel.setText("Filled: " + registered + " / " + event.getInitialSlots());
+            rateLabel.setText(String.format("Last %d min: %.1f / min", FillRateTracker.RATE_WINDOW, rate));
+            if (event.getAvailableSlots() == 0) {
+                projectionLabel.setText("Sold out");
+            } else if (rate == 0) {
+                projectionLabel.setText("Sell-out: no recent registrations");
+            } else {
+                projectionLabel.setText(String.format("Sell-out in ~%.0f min", event.getAvailableSlots() / rate));
+            }
+        };
+        analyticsEventCombo.addActionListener(e -> refreshChart.run());
+        rangeCombo.addActionListener(e -> refreshChart.run());
+        refreshChart.run();
+        viewRefreshers.add(() -> {
+            syncEventItems(analyticsEventCombo);
+            refreshChart.run();
+        });
 
-        card.add(valueLabel, BorderLayout.CENTER);
-        card.add(titleLabel, BorderLayout.SOUTH);
+        // Buttons panel
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        buttonsPanel.setBackground(CARD_BG);
 
-        return card;
+        JButton backButton = createSecondaryButton("Back to Menu");
+        JButton refreshButton = createPrimaryButton("Refresh");
+
+        backButton.addActionListener(e -> showMainMenu());
+        refreshButton.addActionListener(e -> refreshChart.run());
+
+        buttonsPanel.add(backButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(refreshButton);
+
+        chartPanel.add(summaryPanel, BorderLayout.NORTH);
+        chartPanel.add(chart, BorderLayout.CENTER);
+        chartPanel.add(buttonsPanel, BorderLayout.SOUTH);
+
+        JPanel northPanel = new JPanel(new BorderLayout(0, 10));
+        northPanel.setBackground(BACKGROUND);
+        northPanel.add(headerPanel, BorderLayout.NORTH);
+        northPanel.add(controlsPanel, BorderLayout.SOUTH);
+
+        panel.add(northPanel, BorderLayout.NORTH);
+        panel.add(chartPanel, BorderLayout.CENTER);
+
+        return panel;
     }
 
-    private JPanel createEventPanel() {
+    private JPanel createReportsPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(BACKGROUND);
         panel.setBorder(BorderFactory.createEmptyBorder(40, 60, 40, 60));
 
         // Header
-        JPanel headerPanel = createHeaderPanel("Create New Event", "Set up a new event for registration");
+        JPanel headerPanel = createHeaderPanel("Club & Type Reports", "Registrations, fill rate and top events per club and event type");
 
-        // Form panel
-        JPanel formPanel = new JPanel();
-        formPanel.setLayout(new BoxLayout(formPanel, BoxLayout.Y_AXIS));
-        formPanel.setBackground(CARD_BG);
-        formPanel.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(BORDER_COLOR, 1),
-            BorderFactory.createEmptyBorder(30, 30, 30, 30)
-        ));
+        // Controls panel
+        JPanel controlsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlsPanel.setBackground(BACKGROUND);
 
-        JTextField eventNameField = createModernTextField("Enter event name");
-        JTextField clubField = createModernTextField("Enter club name");
-        JTextField dateField = createModernTextField("Enter date (YYYY-MM-DD)");
-        JTextField typeField = createModernTextField("Enter event type");
-        JTextField slotsField = createModernTextField("Enter available slots");
+        JLabel groupLabel = new JLabel("Group by:");
+        groupLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        groupLabel.setForeground(TEXT_PRIMARY);
 
-        formPanel.add(createFieldPanel("Event Name", eventNameField));
-        formPanel.add(Box.createVerticalStrut(20));
-        formPanel.add(createFieldPanel("Club Name", clubField));
-        formPanel.add(Box.createVerticalStrut(20));
-        formPanel.add(createFieldPanel("Event Date", dateField));
-        formPanel.add(Box.createVerticalStrut(20));
-        formPanel.add(createFieldPanel("Event Type", typeField));
-        formPanel.add(Box.createVerticalStrut(20));
-        formPanel.add(createFieldPanel("Available Slots", slotsField));
+        JComboBox<String> groupCombo = new JComboBox<>(new String[]{"Club", "Event Type"});
+        groupCombo.setFont(new Font("Segoe UI", Font.PLAIN, 12));
 
-        // Buttons panel
-        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
-        buttonsPanel.setBackground(CARD_BG);
+        JLabel statusLabel = new JLabel();
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        statusLabel.setForeground(TEXT_SECONDARY);
 
-        JButton backButton = createSecondaryButton("Cancel");
-        JButton createButton = createPrimaryButton("Create Event");
+        controlsPanel.add(groupLabel);
+        controlsPanel.add(Box.createHorizontalStrut(10));
+        controlsPanel.add(groupCombo);
+        controlsPanel.add(Box.createHorizontalStrut(20));
+        controlsPanel.add(statusLabel);
+
+        // Table panel
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setBackground(CARD_BG);
+        tablePanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER_COLOR, 1),
+            BorderFactory.createEmptyBorder(20, 20, 20, 20)
+        ));
+
+        String[] columnNames = {"Group", "Events", "Registrations", "Students", "Capacity", "Fill %", "Top Events"};
+        DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        JTable table = new JTable(tableModel);
+        styleTable(table);
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getViewport().setBackground(CARD_BG);
+
+        Report[] current = {null};
+        Runnable showGroups = () -> {
+            tableModel.setRowCount(0);
+            if (current[0] == null) {
+                return;
+            }
+            java.util.List<GroupSummary> groups = groupCombo.getSelectedIndex() == 0 ? current[0].getByClub() : current[0].getByType();
+            for (GroupSummary group : groups) {
+                tableModel.addRow(new Object[]{
+                    group.getGroup(),
+                    group.getEvents(),
+                    group.getRegistrations(),
+                    group.getStudents(),
+                    group.getCapacity(),
+                    String.format("%.1f%%", group.getFillPercent()),
+                    group.describeTopEvents()
+                });
+            }
+        };
+        // Aggregation runs on the engine's pool; only unchanged events are served from its cache.
+        // A slower, older run never replaces a newer one.
+        int[] latestRun = {0};
+        Runnable refreshReport = () -> {
+            int run = ++latestRun[0];
+            statusLabel.setText("Generating...");
+            java.util.concurrent.CompletableFuture.supplyAsync(getReportEngine()::generate)
+                .whenComplete((report, error) -> SwingUtilities.invokeLater(() -> {
+                    if (run != latestRun[0]) {
+                        return;
+                    }
+                    if (error != null) {
+                        statusLabel.setText("");
+                        showErrorToast("Report failed: " + error.getCause().getMessage());
+                        return;
+                    }
+                    current[0] = report;
+                    statusLabel.setText(String.format("%d events, %d rescanned, %d ms",
+                        report.getEventsCovered(), report.getEventsRescanned(), report.getElapsedMillis()));
+                    showGroups.run();
+                }));
+        };
+        groupCombo.addActionListener(e -> showGroups.run());
+        // Generated when the card is shown or Refresh is pressed, never while it is hidden (or prewarmed)
+        panel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                refreshReport.run();
+            }
+        });
+        viewRefreshers.add(() -> {
+            if (panel.isShowing()) {
+                refreshReport.run();
+            }
+        });
+
+        // Buttons panel
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        buttonsPanel.setBackground(CARD_BG);
+
+        JButton backButton = createSecondaryButton("Back to Menu");
+        JButton exportButton = createSecondaryButton("Export CSV");
+        JButton refreshButton = createPrimaryButton("Refresh");
+
+        backButton.addActionListener(e -> showMainMenu());
+        exportButton.addActionListener(e -> {
+            if (current[0] != null) {
+                exportReportCsv(current[0]);
+            }
+        });
+        refreshButton.addActionListener(e -> refreshReport.run());
+
+        buttonsPanel.add(backButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(exportButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(refreshButton);
+
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        tablePanel.add(buttonsPanel, BorderLayout.SOUTH);
+
+        JPanel northPanel = new JPanel(new BorderLayout(0, 10));
+        northPanel.setBackground(BACKGROUND);
+        northPanel.add(headerPanel, BorderLayout.NORTH);
+        northPanel.add(controlsPanel, BorderLayout.SOUTH);
+
+        panel.add(northPanel, BorderLayout.NORTH);
+        panel.add(tablePanel, BorderLayout.CENTER);
+
+        return panel;
+    }
+
+    private void exportReportCsv(Report report) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("event-report.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path target = chooser.getSelectedFile().toPath();
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            ReportEngine.writeCsv(out, report);
+            showSuccessToast("Report exported to " + target.getFileName());
+        } catch (IOException e) {
+            showErrorToast("Could not export report: " + e.getMessage());
+        }
+    }
+
+    private JPanel createStatsPanel() {
+        JPanel statsPanel = new JPanel(new GridLayout(1, 3, 20, 0));
+        statsPanel.setBackground(BACKGROUND);
+        statsPanel.setMaximumSize(new Dimension(600, 100));
+
+        int totalEvents = store.getEventNames().size();
+        int totalSlots = store.getEvents().stream().mapToInt(EventData::getAvailableSlots).sum();
+        int totalRegistered = store.getEvents().stream().mapToInt(e -> e.getInitialSlots() - e.getAvailableSlots()).sum();
+
+        statsPanel.add(createStatCard("Total Events", String.valueOf(totalEvents), PRIMARY_COLOR));
+        statsPanel.add(createStatCard("Available Slots", String.valueOf(totalSlots), SUCCESS_COLOR));
+        statsPanel.add(createStatCard("Registrations", String.valueOf(totalRegistered), WARNING_COLOR));
+
+        return statsPanel;
+    }
+
+    private JPanel createStatCard(String title, String value, Color accentColor) {
+        JPanel card = new JPanel();
+        card.setLayout(new BorderLayout());
+        card.setBackground(CARD_BG);
+        card.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER_COLOR, 1),
+            BorderFactory.createEmptyBorder(20, 20, 20, 20)
+        ));
+
+        JLabel valueLabel = new JLabel(value);
+        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        valueLabel.setForeground(accentColor);
+        valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        titleLabel.setForeground(TEXT_SECONDARY);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        card.add(valueLabel, BorderLayout.CENTER);
+        card.add(titleLabel, BorderLayout.SOUTH);
+
+        return card;
+    }
+
+    private JPanel createEventPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(BACKGROUND);
+        panel.setBorder(BorderFactory.createEmptyBorder(40, 60, 40, 60));
+
+        // Header
+        JPanel headerPanel = createHeaderPanel("Create New Event", "Set up a new event for registration");
+
+        // Form panel
+        JPanel formPanel = new JPanel();
+        formPanel.setLayout(new BoxLayout(formPanel, BoxLayout.Y_AXIS));
+        formPanel.setBackground(CARD_BG);
+        formPanel.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(BORDER_COLOR, 1),
+            BorderFactory.createEmptyBorder(30, 30, 30, 30)
+        ));
+
+        JTextField eventNameField = createModernTextField("Enter event name");
+        JTextField clubField = createModernTextField("Enter club name");
+        JTextField dateField = createModernTextField("Enter date (YYYY-MM-DD)");
+        JTextField startField = createModernTextField("Start time (HH:MM, optional)");
+        JTextField endField = createModernTextField("End time (HH:MM, optional)");
+        JTextField typeField = createModernTextField("Enter event type");
+        JTextField slotsField = createModernTextField("Enter available slots");
+
+        formPanel.add(createFieldPanel("Event Name", eventNameField));
+        formPanel.add(Box.createVerticalStrut(20));
+        formPanel.add(createFieldPanel("Club Name", clubField));
+        formPanel.add(Box.createVerticalStrut(20));
+        formPanel.add(createFieldPanel("Event Date", dateField));
+        formPanel.add(Box.createVerticalStrut(20));
+        JPanel timePanel = new JPanel(new GridLayout(1, 2, 20, 0));
+        timePanel.setBackground(CARD_BG);
+        timePanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        timePanel.add(createFieldPanel("Start Time", startField));
+        timePanel.add(createFieldPanel("End Time", endField));
+        formPanel.add(timePanel);
+        formPanel.add(Box.createVerticalStrut(20));
+        formPanel.add(createFieldPanel("Event Type", typeField));
+        formPanel.add(Box.createVerticalStrut(20));
+        formPanel.add(createFieldPanel("Available Slots", slotsField));
+
+        // Buttons panel
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonsPanel.setBackground(CARD_BG);
+
+        JButton backButton = createSecondaryButton("Cancel");
+        JButton createButton = createPrimaryButton("Create Event");
 
         backButton.addActionListener(e -> showMainMenu());
         createButton.addActionListener(e -> {
@@ -371,28 +1059,57 @@ public class ModernEventRegistrationApp extends JFrame {
                 String name = eventNameField.getText().trim();
                 String club = clubField.getText().trim();
                 String date = dateField.getText().trim();
+                String start = startField.getText().trim();
+                String end = endField.getText().trim();
                 String type = typeField.getText().trim();
                 int slots = Integer.parseInt(slotsField.getText().trim());
 
                 if (name.isEmpty() || club.isEmpty() || date.isEmpty() || type.isEmpty()) {
-                    showErrorDialog("Please fill in all fields.");
+                    showErrorToast("Please fill in all fields.");
+                    return;
+                }
+
+                // Placeholder text means the optional time fields were left blank
+                start = start.startsWith("Start time") ? "" : start;
+                end = end.startsWith("End time") ? "" : end;
+                if (!start.isEmpty() || !end.isEmpty()) {
+                    try {
+                        java.time.LocalDate.parse(date);
+                        if (!java.time.LocalTime.parse(end).isAfter(java.time.LocalTime.parse(start))) {
+                            showErrorToast("End time must be after start time.");
+                            return;
+                        }
+                    } catch (java.time.format.DateTimeParseException ex) {
+                        showErrorToast("Please enter the date as YYYY-MM-DD and both times as HH:MM.");
+                        return;
+                    }
+                }
+
+                if (store.getEvent(name) != null) {
+                    showErrorToast("An event with this name already exists.");
                     return;
                 }
 
-                events.put(name, new EventData(name, club, date, type, slots));
-                registrations.put(name, new java.util.ArrayList<>()); // Initialize registration list
-                showSuccessDialog("Event created successfully!");
+                try {
+                    registrationService.createEvent(new EventData(name, club, date, start, end, type, slots));
+                } catch (StoreException ex) {
+                    showErrorToast(ex.getMessage());
+                    return;
+                }
+                showSuccessToast("Event created successfully!");
                 
                 // Clear fields
                 eventNameField.setText("");
                 clubField.setText("");
                 dateField.setText("");
+                startField.setText("");
+                endField.setText("");
                 typeField.setText("");
                 slotsField.setText("");
                 
                 showMainMenu();
             } catch (NumberFormatException ex) {
-                showErrorDialog("Please enter a valid number for slots.");
+                showErrorToast("Please enter a valid number for slots.");
             }
         });
 
@@ -433,7 +1150,7 @@ public class ModernEventRegistrationApp extends JFrame {
 
         // Update combo box with current events
         eventCombo.removeAllItems();
-        for (String eventName : events.keySet()) {
+        for (String eventName : store.getEventNames()) {
             eventCombo.addItem(eventName);
         }
 
@@ -448,6 +1165,10 @@ public class ModernEventRegistrationApp extends JFrame {
         
         // Update details when event selection changes
         eventCombo.addActionListener(e -> updateEventDetails(detailsPanel));
+        viewRefreshers.add(() -> {
+            syncEventItems(eventCombo);
+            updateEventDetails(detailsPanel);
+        });
         if (eventCombo.getItemCount() > 0) {
             updateEventDetails(detailsPanel);
         }
@@ -457,6 +1178,7 @@ public class ModernEventRegistrationApp extends JFrame {
         buttonsPanel.setBackground(CARD_BG);
 
         JButton backButton = createSecondaryButton("Cancel");
+        JButton batchButton = createSecondaryButton("Batch Register");
         JButton registerButton = createPrimaryButton("Register Now");
 
         backButton.addActionListener(e -> showMainMenu());
@@ -466,28 +1188,42 @@ public class ModernEventRegistrationApp extends JFrame {
             String name = nameField.getText().trim();
 
             if (selectedEvent == null || rollNo.isEmpty() || name.isEmpty()) {
-                showErrorDialog("Please fill in all fields.");
+                showErrorToast("Please fill in all fields.");
                 return;
             }
 
-            EventData event = events.get(selectedEvent);
-            if (event.getAvailableSlots() > 0) {
-                event.reduceSlot();
-                // Add registration record
-                Registration registration = new Registration(rollNo, name, selectedEvent, java.time.LocalDateTime.now().toString());
-                registrations.get(selectedEvent).add(registration);
-                showSuccessDialog("Registration successful for " + selectedEvent + "!");
+            BatchResult result;
+            try {
+                result = registrationService.register(selectedEvent, rollNo, name);
+            } catch (StoreException ex) {
+                showErrorToast(ex.getMessage());
+                return;
+            }
+            if (!result.getRegistered().isEmpty()) {
+                showSuccessToast("Registration successful for " + selectedEvent + "!");
                 rollField.setText("");
                 nameField.setText("");
                 updateEventDetails(detailsPanel);
                 showMainMenu();
             } else {
-                showErrorDialog("Sorry, this event is full!");
+                showErrorToast(result.getRejected().get(0).getReason());
             }
         });
 
+        batchButton.addActionListener(e -> {
+            String selectedEvent = (String) eventCombo.getSelectedItem();
+            if (selectedEvent == null) {
+                showErrorToast("Please select an event first.");
+                return;
+            }
+            showBatchRegistrationDialog(selectedEvent);
+            updateEventDetails(detailsPanel);
+        });
+
         buttonsPanel.add(backButton);
         buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(batchButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
         buttonsPanel.add(registerButton);
 
         formPanel.add(Box.createVerticalStrut(20));
@@ -518,7 +1254,7 @@ public class ModernEventRegistrationApp extends JFrame {
             BorderFactory.createEmptyBorder(20, 20, 20, 20)
         ));
 
-        String[] columnNames = {"Event Name", "Club", "Date", "Type", "Available Slots", "Registered"};
+        String[] columnNames = {"Event Name", "Club", "Date", "Time", "Type", "Available Slots", "Registered"};
         DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -526,11 +1262,12 @@ public class ModernEventRegistrationApp extends JFrame {
             }
         };
 
-        for (EventData event : events.values()) {
+        for (EventData event : store.getEvents()) {
             tableModel.addRow(new Object[]{
                 event.getEventName(),
                 event.getClubName(),
                 event.getEventDate(),
+                event.getTimeWindow(),
                 event.getEventType(),
                 event.getAvailableSlots(),
                 event.getInitialSlots() - event.getAvailableSlots()
@@ -549,26 +1286,33 @@ public class ModernEventRegistrationApp extends JFrame {
         buttonsPanel.setBackground(CARD_BG);
 
         JButton backButton = createSecondaryButton("Back to Menu");
+        JButton conflictsButton = createSecondaryButton("Conflict Report");
         JButton refreshButton = createPrimaryButton("Refresh");
 
         backButton.addActionListener(e -> showMainMenu());
-        refreshButton.addActionListener(e -> {
+        conflictsButton.addActionListener(e -> showConflictReport());
+        Runnable refreshEvents = () -> {
             // Refresh table data
             tableModel.setRowCount(0);
-            for (EventData event : events.values()) {
+            for (EventData event : store.getEvents()) {
                 tableModel.addRow(new Object[]{
                     event.getEventName(),
                     event.getClubName(),
                     event.getEventDate(),
+                    event.getTimeWindow(),
                     event.getEventType(),
                     event.getAvailableSlots(),
                     event.getInitialSlots() - event.getAvailableSlots()
                 });
             }
-        });
+        };
+        refreshButton.addActionListener(e -> refreshEvents.run());
+        viewRefreshers.add(refreshEvents);
 
         buttonsPanel.add(backButton);
         buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(conflictsButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
         buttonsPanel.add(refreshButton);
 
         tablePanel.add(scrollPane, BorderLayout.CENTER);
@@ -640,17 +1384,20 @@ public class ModernEventRegistrationApp extends JFrame {
         detailsPanel.removeAll();
         
         String selectedEvent = (String) eventCombo.getSelectedItem();
-        if (selectedEvent != null && events.containsKey(selectedEvent)) {
-            EventData event = events.get(selectedEvent);
+        EventDetailsView details = selectedEvent == null ? null : eventViewCache.getDetails(selectedEvent, () -> {
+            EventData event = store.getEvent(selectedEvent);
+            return event == null ? null : new EventDetailsView(event);
+        });
+        if (details != null) {
             
             JLabel titleLabel = new JLabel("Event Details");
             titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
             titleLabel.setForeground(TEXT_PRIMARY);
             
-            JLabel clubLabel = new JLabel("Club: " + event.getClubName());
-            JLabel dateLabel = new JLabel("Date: " + event.getEventDate());
-            JLabel typeLabel = new JLabel("Type: " + event.getEventType());
-            JLabel slotsLabel = new JLabel("Available Slots: " + event.getAvailableSlots());
+            JLabel clubLabel = new JLabel(details.getClubLine());
+            JLabel dateLabel = new JLabel(details.getDateLine());
+            JLabel typeLabel = new JLabel(details.getTypeLine());
+            JLabel slotsLabel = new JLabel(details.getSlotsLine());
             
             Font detailFont = new Font("Segoe UI", Font.PLAIN, 12);
             clubLabel.setFont(detailFont);
@@ -885,12 +1632,165 @@ public class ModernEventRegistrationApp extends JFrame {
         }
     }
 
-    private void showSuccessDialog(String message) {
-        JOptionPane.showMessageDialog(this, message, "Success", JOptionPane.INFORMATION_MESSAGE);
+    private void showBatchRegistrationDialog(String eventName) {
+        JDialog dialog = new JDialog(this, "Batch Registration - " + eventName, true);
+        JPanel content = new JPanel(new BorderLayout(0, 15));
+        content.setBackground(CARD_BG);
+        content.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel hintLabel = new JLabel("<html>Paste one student per line as <b>roll number, full name</b>.<br>"
+                + "Lines with only a roll number use the roll number as the name.</html>");
+        hintLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        hintLabel.setForeground(TEXT_SECONDARY);
+
+        JTextArea studentsArea = new JTextArea(12, 40);
+        studentsArea.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        JScrollPane scrollPane = new JScrollPane(studentsArea);
+        scrollPane.setBorder(BorderFactory.createLineBorder(BORDER_COLOR, 1));
+
+        JCheckBox allOrNothingBox = new JCheckBox("All or nothing (register no one unless everyone fits)");
+        allOrNothingBox.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        allOrNothingBox.setBackground(CARD_BG);
+
+        JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonsPanel.setBackground(CARD_BG);
+
+        JButton cancelButton = createSecondaryButton("Cancel");
+        JButton submitButton = createPrimaryButton("Register All");
+
+        cancelButton.addActionListener(e -> dialog.dispose());
+        submitButton.addActionListener(e -> {
+            java.util.List<BatchEntry> entries = BatchEntry.parseAll(studentsArea.getText());
+            if (entries.isEmpty()) {
+                showToast(dialog, "Please paste at least one roll number.", DANGER_COLOR, ERROR_TOAST_MILLIS);
+                return;
+            }
+
+            BatchResult result;
+            try {
+                result = registrationService.registerBatch(eventName, entries, allOrNothingBox.isSelected());
+            } catch (StoreException ex) {
+                showToast(dialog, ex.getMessage(), DANGER_COLOR, ERROR_TOAST_MILLIS);
+                return;
+            }
+            StringBuilder summary = new StringBuilder();
+            summary.append("Registered ").append(result.getRegistered().size())
+                   .append(" of ").append(entries.size()).append(" students for ").append(eventName).append(".");
+            int shown = 0;
+            for (Rejection rejected : result.getRejected()) {
+                if (shown++ == 10) {
+                    summary.append("\n...and ").append(result.getRejected().size() - 10).append(" more");
+                    break;
+                }
+                summary.append("\n").append(rejected.describe());
+            }
+
+            if (result.getRegistered().isEmpty()) {
+                showToast(dialog, summary.toString(), DANGER_COLOR, ERROR_TOAST_MILLIS);
+            } else {
+                dialog.dispose();
+                showSuccessToast(summary.toString());
+            }
+        });
+
+        buttonsPanel.add(cancelButton);
+        buttonsPanel.add(Box.createHorizontalStrut(10));
+        buttonsPanel.add(submitButton);
+
+        JPanel southPanel = new JPanel(new BorderLayout(0, 15));
+        southPanel.setBackground(CARD_BG);
+        southPanel.add(allOrNothingBox, BorderLayout.NORTH);
+        southPanel.add(buttonsPanel, BorderLayout.SOUTH);
+
+        content.add(hintLabel, BorderLayout.NORTH);
+        content.add(scrollPane, BorderLayout.CENTER);
+        content.add(southPanel, BorderLayout.SOUTH);
+
+        dialog.setContentPane(content);
+        dialog.pack();
+        dialog.setLocationRelativeTo(this);
+        dialog.setVisible(true);
+    }
+
+    private void showConflictReport() {
+        java.util.List<ScheduleConflict> conflicts = ScheduleIndex.conflictReport(store);
+        StringBuilder report = new StringBuilder();
+        if (conflicts.isEmpty()) {
+            report.append("No student is registered for overlapping events.");
+        }
+        for (ScheduleConflict conflict : conflicts) {
+            report.append(conflict.getRollNumber()).append(": ")
+                  .append(conflict.getFirstEvent()).append(" overlaps ").append(conflict.getSecondEvent()).append('\n');
+        }
+
+        JTextArea reportArea = new JTextArea(report.toString(), 15, 50);
+        reportArea.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        reportArea.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(reportArea),
+            "Schedule Conflicts (" + conflicts.size() + ")", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void showSuccessToast(String message) {
+        showToast(this, message, SUCCESS_COLOR, TOAST_MILLIS);
+    }
+
+    private void showErrorToast(String message) {
+        showToast(this, message, DANGER_COLOR, ERROR_TOAST_MILLIS);
+    }
+
+    // Non-modal message stacked in the bottom-right corner of the window; it disappears after
+    // 'millis' or when clicked, so the operator never has to dismiss anything
+    private void showToast(RootPaneContainer owner, String message, Color accentColor, int millis) {
+        JLayeredPane layers = owner.getLayeredPane();
+
+        String html = message.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\n", "<br>");
+        JLabel toast = new JLabel("<html><div style='width: 280px'>" + html + "</div></html>");
+        toast.setName("toast");
+        toast.setOpaque(true);
+        toast.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        toast.setForeground(TEXT_PRIMARY);
+        toast.setBackground(CARD_BG);
+        toast.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(BORDER_COLOR, 1),
+                BorderFactory.createMatteBorder(0, 4, 0, 0, accentColor)),
+            BorderFactory.createEmptyBorder(12, 14, 12, 14)
+        ));
+        toast.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        Runnable dismiss = () -> {
+            if (toast.getParent() == layers) {
+                layers.remove(toast);
+                layoutToasts(layers);
+                layers.repaint();
+            }
+        };
+        toast.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                dismiss.run();
+            }
+        });
+
+        layers.add(toast, JLayeredPane.POPUP_LAYER);
+        layoutToasts(layers);
+        layers.repaint();
+
+        Timer timer = new Timer(millis, e -> dismiss.run());
+        timer.setRepeats(false);
+        timer.start();
     }
 
-    private void showErrorDialog(String message) {
-        JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
+    private static void layoutToasts(JLayeredPane layers) {
+        int y = layers.getHeight() - 20;
+        for (Component component : layers.getComponentsInLayer(JLayeredPane.POPUP_LAYER)) {
+            if ("toast".equals(component.getName())) {
+                Dimension size = component.getPreferredSize();
+                y -= size.height;
+                component.setBounds(layers.getWidth() - size.width - 20, y, size.width, size.height);
+                y -= 10;
+            }
+        }
     }
 
     // Enhanced EventData class with initial slots tracking
@@ -898,26 +1798,101 @@ public class ModernEventRegistrationApp extends JFrame {
         private final String eventName;
         private final String clubName;
         private final String eventDate;
+        private final String startTime;
+        private final String endTime;
         private final String eventType;
         private final int initialSlots;
         private int availableSlots;
+        private long version;
+        private final long startMinute;
+        private final long endMinute;
 
         public EventData(String eventName, String clubName, String eventDate, String eventType, int availableSlots) {
+            this(eventName, clubName, eventDate, "", "", eventType, availableSlots);
+        }
+
+        public EventData(String eventName, String clubName, String eventDate, String startTime, String endTime,
+                         String eventType, int availableSlots) {
+            this(eventName, clubName, eventDate, startTime, endTime, eventType, availableSlots, availableSlots);
+        }
+
+        // Used by stores restoring an event with some slots already taken
+        public EventData(String eventName, String clubName, String eventDate, String startTime, String endTime,
+                         String eventType, int initialSlots, int availableSlots) {
             this.eventName = eventName;
             this.clubName = clubName;
             this.eventDate = eventDate;
+            this.startTime = startTime == null ? "" : startTime;
+            this.endTime = endTime == null ? "" : endTime;
             this.eventType = eventType;
-            this.initialSlots = availableSlots;
+            this.initialSlots = initialSlots;
             this.availableSlots = availableSlots;
+
+            // Minutes since the epoch (zone-free); -1 when the event has no usable time window
+            long start = -1;
+            long end = -1;
+            try {
+                java.time.LocalDate date = java.time.LocalDate.parse(eventDate);
+                start = date.atTime(java.time.LocalTime.parse(this.startTime)).toEpochSecond(java.time.ZoneOffset.UTC) / 60;
+                end = date.atTime(java.time.LocalTime.parse(this.endTime)).toEpochSecond(java.time.ZoneOffset.UTC) / 60;
+            } catch (java.time.format.DateTimeParseException e) {
+                start = -1;
+            }
+            this.startMinute = end > start ? start : -1;
+            this.endMinute = end > start ? end : -1;
         }
 
         public String getEventName() { return eventName; }
         public String getClubName() { return clubName; }
         public String getEventDate() { return eventDate; }
+        public String getStartTime() { return startTime; }
+        public String getEndTime() { return endTime; }
         public String getEventType() { return eventType; }
-        public int getAvailableSlots() { return availableSlots; }
+        public boolean hasTimeWindow() { return startMinute >= 0; }
+        public long getStartMinute() { return startMinute; }
+        public long getEndMinute() { return endMinute; }
+        public String getTimeWindow() { return hasTimeWindow() ? startTime + " - " + endTime : ""; }
+
+        // Dated before 'today'; a time window never crosses midnight, so such an event cannot overlap a later one
+        public boolean isPast(java.time.LocalDate today) {
+            try {
+                return java.time.LocalDate.parse(eventDate).isBefore(today);
+            } catch (java.time.format.DateTimeParseException e) {
+                return false;
+            }
+        }
+
+        public synchronized int getAvailableSlots() { return availableSlots; }
         public int getInitialSlots() { return initialSlots; }
-        public void reduceSlot() { if (availableSlots > 0) availableSlots--; }
+        public synchronized void reduceSlot() { if (availableSlots > 0) availableSlots--; }
+
+        // Bumped on every slot change so concurrent writers can detect stale reads
+        public synchronized long getVersion() { return version; }
+
+        // How many of 'requested' slots reserveSlots would take, without taking them
+        public synchronized int reservableSlots(int requested, boolean allOrNothing) {
+            if (requested <= 0 || (allOrNothing && availableSlots < requested)) {
+                return 0;
+            }
+            return Math.min(requested, availableSlots);
+        }
+
+        // Takes up to 'requested' slots in one step; with allOrNothing, takes none unless all fit
+        public synchronized int reserveSlots(int requested, boolean allOrNothing) {
+            int reserved = reservableSlots(requested, allOrNothing);
+            if (reserved == 0) {
+                return 0;
+            }
+            availableSlots -= reserved;
+            version++;
+            return reserved;
+        }
+
+        // Applies a slot count recorded in a store log (possibly by another app instance)
+        public synchronized void applySlots(int availableSlots, long version) {
+            this.availableSlots = availableSlots;
+            this.version = version;
+        }
     }
 
     // Registration class to track individual registrations
@@ -939,4 +1914,2747 @@ public class ModernEventRegistrationApp extends JFrame {
         public String getEventName() { return eventName; }
         public String getRegistrationDate() { return registrationDate; }
     }
+
+    // One student line from a batch registration request
+    private static class BatchEntry {
+        private final String rollNumber;
+        private final String studentName;
+
+        public BatchEntry(String rollNumber, String studentName) {
+            this.rollNumber = rollNumber;
+            this.studentName = studentName;
+        }
+
+        public String getRollNumber() { return rollNumber; }
+        public String getStudentName() { return studentName; }
+
+        // Parses pasted "roll, name" (or tab separated) lines, skipping blanks
+        public static java.util.List<BatchEntry> parseAll(String text) {
+            java.util.List<BatchEntry> entries = new java.util.ArrayList<>();
+            for (String line : text.split("\\R")) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int split = line.indexOf(',');
+                if (split < 0) {
+                    split = line.indexOf('\t');
+                }
+                String roll = split < 0 ? line : line.substring(0, split).trim();
+                String name = split < 0 ? "" : line.substring(split + 1).trim();
+                entries.add(new BatchEntry(roll, name.isEmpty() ? roll : name));
+            }
+            return entries;
+        }
+    }
+
+    // Outcome of a (batch) registration: who got in and why the rest did not, one rejection per entry
+    private static class BatchResult {
+        private final java.util.List<Registration> registered = new java.util.ArrayList<>();
+        private final java.util.List<Rejection> rejected = new java.util.ArrayList<>();
+
+        public java.util.List<Registration> getRegistered() { return registered; }
+        public java.util.List<Rejection> getRejected() { return rejected; }
+
+        void reject(String rollNumber, String reason) {
+            rejected.add(new Rejection(rollNumber, reason));
+        }
+    }
+
+    // One batch entry that was not registered, and why; a roll number given twice gets two of these
+    private static class Rejection {
+        private final String rollNumber;
+        private final String reason;
+
+        public Rejection(String rollNumber, String reason) {
+            this.rollNumber = rollNumber;
+            this.reason = reason;
+        }
+
+        public String getRollNumber() { return rollNumber; }
+        public String getReason() { return reason; }
+
+        public String describe() {
+            return (rollNumber.isEmpty() ? "(blank)" : rollNumber) + ": " + reason;
+        }
+    }
+
+    // Registration logic shared by the single form and batch registration
+    private static class RegistrationService {
+        private final EventStore store;
+        private static final int MAX_ATTEMPTS = 5;
+
+        private final java.util.List<RegistrationListener> listeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+        private final Map<String, Object> eventLocks = new java.util.concurrent.ConcurrentHashMap<>();
+        private volatile ScheduleIndex scheduleIndex;
+
+        public RegistrationService(EventStore store) {
+            this.store = store;
+        }
+
+        public void addListener(RegistrationListener listener) {
+            listeners.add(listener);
+        }
+
+        public void createEvent(EventData event) {
+            store.addEvent(event);
+            for (RegistrationListener listener : listeners) {
+                listener.eventCreated(event);
+            }
+        }
+
+        // Loaded from the store on the first registration rather than at startup. It is published before
+        // it is filled, so remote bookings recorded meanwhile are kept; adding a booking twice is harmless.
+        // Past events are left out: they cannot clash with a new registration, and are the ones most
+        // likely to be spilled, so reading them would stream their segments back from disk.
+        private synchronized ScheduleIndex getScheduleIndex() {
+            if (scheduleIndex == null) {
+                ScheduleIndex index = new ScheduleIndex();
+                scheduleIndex = index;
+                java.time.LocalDate today = java.time.LocalDate.now();
+                for (EventData event : store.getEvents()) {
+                    if (event.hasTimeWindow() && !event.isPast(today)) {
+                        store.forEachRegistration(event.getEventName(), registration -> index.add(registration.getRollNumber(), event));
+                    }
+                }
+            }
+            return scheduleIndex;
+        }
+
+        // Changes another app instance committed to a shared store; it already sent the confirmations
+        public void applyRemoteEvent(EventData event) {
+            for (RegistrationListener listener : listeners) {
+                listener.eventCreatedElsewhere(event);
+            }
+        }
+
+        // Called on the thread that read the changes (which may hold the store's lock), before
+        // applyRemoteRegistrations; takes no service lock so it cannot deadlock with getScheduleIndex
+        public void recordRemoteBookings(String eventName, java.util.List<Registration> batch) {
+            ScheduleIndex index = scheduleIndex;
+            EventData event = store.getEvent(eventName);
+            if (index != null && event != null && !event.isPast(java.time.LocalDate.now())) {
+                for (Registration registration : batch) {
+                    index.add(registration.getRollNumber(), event);
+                }
+            }
+        }
+
+        public void applyRemoteRegistrations(String eventName, java.util.List<Registration> batch) {
+            for (RegistrationListener listener : listeners) {
+                listener.registeredElsewhere(eventName, batch);
+            }
+        }
+
+        public BatchResult register(String eventName, String rollNumber, String studentName) {
+            return registerBatch(eventName, java.util.Collections.singletonList(new BatchEntry(rollNumber, studentName)), true);
+        }
+
+        // Validates the whole batch, reserves its slots in a single step, then commits all records at once.
+        // If another writer changed the event in between (shared store), the batch is re-validated and retried.
+        public BatchResult registerBatch(String eventName, java.util.List<BatchEntry> entries, boolean allOrNothing) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return attemptBatch(eventName, entries, allOrNothing);
+                } catch (StaleVersionException e) {
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw new StoreException("Event is too busy right now, please try again: " + eventName, e);
+                    }
+                }
+            }
+        }
+
+        private BatchResult attemptBatch(String eventName, java.util.List<BatchEntry> entries, boolean allOrNothing) {
+            BatchResult result = new BatchResult();
+            EventData event = store.getEvent(eventName);
+            if (event == null) {
+                for (BatchEntry entry : entries) {
+                    result.reject(entry.getRollNumber(), "Event not found");
+                }
+                return result;
+            }
+
+            synchronized (eventLocks.computeIfAbsent(eventName, k -> new Object())) {
+                long expectedVersion = event.getVersion();
+                java.util.List<String> rollNumbers = new java.util.ArrayList<>(entries.size());
+                for (BatchEntry entry : entries) {
+                    rollNumbers.add(entry.getRollNumber());
+                }
+                java.util.Set<String> alreadyRegistered = store.findRegistered(eventName, rollNumbers);
+                java.util.Set<String> inBatch = new java.util.HashSet<>();
+
+                // Accepted students are booked into the schedule index straight away, so a concurrent
+                // registration for an overlapping event sees them; bookings that do not commit are released
+                ScheduleIndex schedule = getScheduleIndex();
+                java.util.List<BatchEntry> accepted = new java.util.ArrayList<>();
+                for (BatchEntry entry : entries) {
+                    String conflict;
+                    if (entry.getRollNumber().isEmpty()) {
+                        result.reject("", "Missing roll number");
+                    } else if (alreadyRegistered.contains(entry.getRollNumber())) {
+                        result.reject(entry.getRollNumber(), "Already registered for this event");
+                    } else if (!inBatch.add(entry.getRollNumber())) {
+                        result.reject(entry.getRollNumber(), "Duplicate in this batch");
+                    } else if ((conflict = schedule.tryBook(entry.getRollNumber(), event)) != null) {
+                        result.reject(entry.getRollNumber(), "Clashes with " + conflict);
+                    } else {
+                        accepted.add(entry);
+                    }
+                }
+
+                if (allOrNothing && !result.getRejected().isEmpty()) {
+                    for (BatchEntry entry : accepted) {
+                        schedule.release(entry.getRollNumber(), event);
+                        result.reject(entry.getRollNumber(), "Batch rejected: other entries are invalid");
+                    }
+                    return result;
+                }
+
+                String registrationDate = java.time.LocalDateTime.now().toString();
+                java.util.List<Registration> candidates = new java.util.ArrayList<>(accepted.size());
+                for (BatchEntry entry : accepted) {
+                    candidates.add(new Registration(entry.getRollNumber(), entry.getStudentName(), eventName, registrationDate));
+                }
+
+                int reserved = 0;
+                try {
+                    while (true) {
+                        try {
+                            reserved = store.registerAll(eventName, candidates, allOrNothing, expectedVersion);
+                            break;
+                        } catch (ScheduleClashException e) {
+                            // Booked elsewhere since our check (shared store); nothing was written
+                            for (java.util.Iterator<Registration> it = candidates.iterator(); it.hasNext(); ) {
+                                Registration candidate = it.next();
+                                String clash = e.getClashes().get(candidate.getRollNumber());
+                                if (clash != null) {
+                                    schedule.release(candidate.getRollNumber(), event);
+                                    result.reject(candidate.getRollNumber(), "Clashes with " + clash);
+                                    it.remove();
+                                }
+                            }
+                            if (allOrNothing) {
+                                for (Registration candidate : candidates) {
+                                    schedule.release(candidate.getRollNumber(), event);
+                                    result.reject(candidate.getRollNumber(), "Batch rejected: other entries are invalid");
+                                }
+                                candidates.clear();
+                                break;
+                            }
+                        }
+                    }
+                } finally {
+                    for (Registration unbooked : candidates.subList(reserved, candidates.size())) {
+                        schedule.release(unbooked.getRollNumber(), event);
+                    }
+                }
+                result.getRegistered().addAll(candidates.subList(0, reserved));
+                for (Registration rejected : candidates.subList(reserved, candidates.size())) {
+                    result.reject(rejected.getRollNumber(), "Sorry, this event is full!");
+                }
+            }
+
+            if (!result.getRegistered().isEmpty()) {
+                for (RegistrationListener listener : listeners) {
+                    listener.registered(eventName, result.getRegistered());
+                }
+            }
+            return result;
+        }
+    }
+
+    // Storage backend for events and their registrations, chosen at startup by createStore()
+    private interface EventStore {
+        EventData getEvent(String eventName);
+        java.util.Collection<EventData> getEvents();
+        java.util.Set<String> getEventNames();
+        void addEvent(EventData event);
+        java.util.List<Registration> getRegistrations(String eventName);
+
+        // The subset of rollNumbers already registered for the event, without loading its whole roster
+        java.util.Set<String> findRegistered(String eventName, java.util.Collection<String> rollNumbers);
+
+        // Reserves slots for a prefix of the candidates and stores those registrations in one step;
+        // returns how many were registered (0 or all of them when allOrNothing). Throws
+        // StaleVersionException if the event is no longer at expectedVersion.
+        int registerAll(String eventName, java.util.List<Registration> candidates, boolean allOrNothing, long expectedVersion);
+
+        // Receives changes made by other app instances, on a background thread; only shared stores report any
+        default void setChangeListener(RegistrationListener listener) {
+        }
+
+        // Tiered stores keep only some events' registrations on the heap; getRegistrations pages the rest back in
+        default boolean isResident(String eventName) {
+            return true;
+        }
+
+        default int getSpilledRegistrationCount() {
+            return 0;
+        }
+
+        // Visits an event's registrations without paging them back into memory
+        default void forEachRegistration(String eventName, java.util.function.Consumer<Registration> action) {
+            getRegistrations(eventName).forEach(action);
+        }
+
+        default void setTierListener(TierListener listener) {
+        }
+
+        void close();
+    }
+
+    // Told when a tiered store moves an event's registrations between the heap and disk
+    private interface TierListener {
+        void spilled(String eventName);
+        void pagedIn(String eventName, java.util.List<Registration> registrations);
+    }
+
+    // Thrown when a persistent store cannot read or write its backing file or database
+    private static class StoreException extends RuntimeException {
+        public StoreException(String message) {
+            super(message);
+        }
+
+        public StoreException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    // Thrown by addEvent when an event with the same name is already stored
+    private static class DuplicateEventException extends StoreException {
+        public DuplicateEventException(String eventName) {
+            super("An event with this name already exists: " + eventName);
+        }
+    }
+
+    // Thrown by a shared store when, under its lock, some candidates turn out to be booked elsewhere into an
+    // overlapping event; nothing was written, so the caller can drop those candidates and try again
+    private static class ScheduleClashException extends StoreException {
+        private final Map<String, String> clashes;
+
+        public ScheduleClashException(String eventName, Map<String, String> clashes) {
+            super("Students were booked into an overlapping event concurrently: " + eventName);
+            this.clashes = clashes;
+        }
+
+        // Roll number to the name of the event it clashes with
+        public Map<String, String> getClashes() { return clashes; }
+    }
+
+    // Thrown when an event changed after the caller read it; the caller should re-read and retry
+    private static class StaleVersionException extends StoreException {
+        public StaleVersionException(String eventName) {
+            super("Event was changed concurrently: " + eventName);
+        }
+    }
+
+    // Keeps everything in HashMaps; nothing survives a restart. With enableSpill, registrations are held
+    // under a heap budget: past events, then the least recently used ones, are written to compressed
+    // segment files and read back the next time they are asked for.
+    private static class InMemoryEventStore implements EventStore {
+        protected final Map<String, EventData> events = new HashMap<>();
+        protected final Map<String, java.util.List<Registration>> registrations = new HashMap<>();
+
+        private long heapBudget = Long.MAX_VALUE;
+        private Path spillDir;
+        private long residentBytes;
+        private long useClock;
+        private final Map<String, Long> lastUsed = new HashMap<>();
+        private final Map<String, Integer> spilledCounts = new HashMap<>();
+        private final Map<String, Path> segmentFiles = new HashMap<>();
+        private final Map<String, java.util.Set<String>> rollIndex = new HashMap<>();
+        private TierListener tierListener;
+
+        // Segments go in a directory of their own under spillDir, so instances sharing it never collide
+        public synchronized void enableSpill(long heapBudget, Path spillDir) {
+            try {
+                Files.createDirectories(spillDir);
+                this.spillDir = Files.createTempDirectory(spillDir, "store-");
+            } catch (IOException e) {
+                throw new StoreException("Could not create spill directory under " + spillDir, e);
+            }
+            this.spillDir.toFile().deleteOnExit();
+            this.heapBudget = heapBudget;
+            enforceBudget(null);
+        }
+
+        @Override
+        public synchronized void setTierListener(TierListener listener) {
+            tierListener = listener;
+        }
+
+        @Override
+        public synchronized boolean isResident(String eventName) {
+            return !spilledCounts.containsKey(eventName);
+        }
+
+        @Override
+        public synchronized int getSpilledRegistrationCount() {
+            return spilledCounts.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        @Override
+        public synchronized void forEachRegistration(String eventName, java.util.function.Consumer<Registration> action) {
+            if (spilledCounts.containsKey(eventName)) {
+                readSegment(eventName).forEach(action);
+            } else {
+                registrations.getOrDefault(eventName, java.util.Collections.emptyList()).forEach(action);
+            }
+        }
+
+        // The event's live registration list, paged back in from disk if it was spilled
+        protected java.util.List<Registration> residentList(String eventName) {
+            lastUsed.put(eventName, ++useClock);
+            if (spilledCounts.remove(eventName) != null) {
+                java.util.List<Registration> list = readSegment(eventName);
+                registrations.put(eventName, list);
+                residentBytes += estimateBytes(list);
+                if (tierListener != null) {
+                    // A copy: the caller may append to the live list before the listener reads it
+                    tierListener.pagedIn(eventName, new java.util.ArrayList<>(list));
+                }
+                enforceBudget(eventName);
+            }
+            return registrations.get(eventName);
+        }
+
+        protected void appendResident(String eventName, java.util.List<Registration> batch) {
+            residentList(eventName).addAll(batch);
+            java.util.Set<String> rolls = rollIndex.get(eventName);
+            if (rolls != null) {
+                for (Registration registration : batch) {
+                    rolls.add(registration.getRollNumber());
+                }
+            }
+            residentBytes += estimateBytes(batch);
+            enforceBudget(eventName);
+        }
+
+        // Rough heap cost: object headers, four string fields and the list slot
+        private static long estimateBytes(java.util.List<Registration> list) {
+            long bytes = 0;
+            for (Registration registration : list) {
+                bytes += 48 + 4 * 40 + 2L * (registration.getRollNumber().length() + registration.getStudentName().length()
+                    + registration.getEventName().length() + registration.getRegistrationDate().length());
+            }
+            return bytes;
+        }
+
+        // Spills past events first, then the least recently used, until under budget; 'keep' stays resident
+        private void enforceBudget(String keep) {
+            while (residentBytes > heapBudget) {
+                java.time.LocalDate today = java.time.LocalDate.now();
+                String victim = null;
+                boolean victimPast = false;
+                for (Map.Entry<String, java.util.List<Registration>> entry : registrations.entrySet()) {
+                    if (entry.getKey().equals(keep) || entry.getValue().isEmpty()) {
+                        continue;
+                    }
+                    EventData event = events.get(entry.getKey());
+                    boolean past = event != null && event.isPast(today);
+                    if (victim == null || (past && !victimPast) || (past == victimPast
+                            && lastUsed.getOrDefault(entry.getKey(), 0L) < lastUsed.getOrDefault(victim, 0L))) {
+                        victim = entry.getKey();
+                        victimPast = past;
+                    }
+                }
+                if (victim == null) {
+                    return;
+                }
+                spill(victim);
+            }
+        }
+
+        // Segment layout: registration count, then roll number, name and date per registration, gzipped
+        private void spill(String eventName) {
+            java.util.List<Registration> list = registrations.remove(eventName);
+            rollIndex.remove(eventName);
+            try {
+                if (!segmentFiles.containsKey(eventName)) {
+                    Path created = Files.createTempFile(spillDir, "segment-", ".bin");
+                    created.toFile().deleteOnExit();
+                    segmentFiles.put(eventName, created);
+                }
+            } catch (IOException e) {
+                registrations.put(eventName, list);
+                throw new StoreException("Could not spill registrations for " + eventName, e);
+            }
+            Path segment = segmentFiles.get(eventName);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(segment))))) {
+                out.writeInt(list.size());
+                for (Registration registration : list) {
+                    out.writeUTF(registration.getRollNumber());
+                    out.writeUTF(registration.getStudentName());
+                    out.writeUTF(registration.getRegistrationDate());
+                }
+            } catch (IOException e) {
+                registrations.put(eventName, list);
+                throw new StoreException("Could not spill registrations for " + eventName, e);
+            }
+            spilledCounts.put(eventName, list.size());
+            residentBytes -= estimateBytes(list);
+            if (tierListener != null) {
+                tierListener.spilled(eventName);
+            }
+        }
+
+        private java.util.List<Registration> readSegment(String eventName) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(segmentFiles.get(eventName)))))) {
+                int count = in.readInt();
+                java.util.List<Registration> list = new java.util.ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    list.add(new Registration(in.readUTF(), in.readUTF(), eventName, in.readUTF()));
+                }
+                return list;
+            } catch (IOException e) {
+                throw new StoreException("Could not read spilled registrations for " + eventName, e);
+            }
+        }
+
+        @Override
+        public synchronized EventData getEvent(String eventName) { return events.get(eventName); }
+
+        @Override
+        public synchronized java.util.Collection<EventData> getEvents() { return new java.util.ArrayList<>(events.values()); }
+
+        @Override
+        public synchronized java.util.Set<String> getEventNames() { return new java.util.LinkedHashSet<>(events.keySet()); }
+
+        @Override
+        public synchronized void addEvent(EventData event) {
+            if (events.containsKey(event.getEventName())) {
+                throw new DuplicateEventException(event.getEventName());
+            }
+            events.put(event.getEventName(), event);
+            registrations.computeIfAbsent(event.getEventName(), k -> new java.util.ArrayList<>());
+            lastUsed.put(event.getEventName(), ++useClock);
+        }
+
+        @Override
+        public synchronized java.util.List<Registration> getRegistrations(String eventName) {
+            java.util.List<Registration> list = events.containsKey(eventName) ? residentList(eventName) : null;
+            return list == null ? java.util.Collections.emptyList() : java.util.Collections.unmodifiableList(list);
+        }
+
+        // Resident events keep a roll-number set built on first use; spilled ones are scanned on disk
+        @Override
+        public synchronized java.util.Set<String> findRegistered(String eventName, java.util.Collection<String> rollNumbers) {
+            java.util.Set<String> found = new java.util.HashSet<>();
+            if (!events.containsKey(eventName)) {
+                return found;
+            }
+            if (spilledCounts.containsKey(eventName)) {
+                java.util.Set<String> wanted = new java.util.HashSet<>(rollNumbers);
+                for (Registration registration : readSegment(eventName)) {
+                    if (wanted.contains(registration.getRollNumber())) {
+                        found.add(registration.getRollNumber());
+                    }
+                }
+                return found;
+            }
+            java.util.Set<String> rolls = rollIndex.computeIfAbsent(eventName, k -> {
+                java.util.Set<String> built = new java.util.HashSet<>();
+                for (Registration registration : registrations.get(k)) {
+                    built.add(registration.getRollNumber());
+                }
+                return built;
+            });
+            for (String rollNumber : rollNumbers) {
+                if (rolls.contains(rollNumber)) {
+                    found.add(rollNumber);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public synchronized int registerAll(String eventName, java.util.List<Registration> candidates, boolean allOrNothing,
+                                            long expectedVersion) {
+            EventData event = events.get(eventName);
+            if (event == null) {
+                return 0;
+            }
+            if (event.getVersion() != expectedVersion) {
+                throw new StaleVersionException(eventName);
+            }
+            int reserved = event.reserveSlots(candidates.size(), allOrNothing);
+            appendResident(eventName, candidates.subList(0, reserved));
+            return reserved;
+        }
+
+        // Spilled segments only live as long as the store that wrote them
+        @Override
+        public synchronized void close() {
+            if (spillDir == null) {
+                return;
+            }
+            try {
+                for (Path segment : segmentFiles.values()) {
+                    Files.deleteIfExists(segment);
+                }
+                Files.deleteIfExists(spillDir);
+            } catch (IOException e) {
+                throw new StoreException("Could not remove spill directory " + spillDir, e);
+            }
+        }
+    }
+
+    // In-memory store backed by an append-only log file, compacted to a snapshot on open
+    private static class FileEventStore extends InMemoryEventStore {
+        private static final String EVENT = "E";
+        private static final String SLOTS = "S";
+        private static final String REGISTRATION = "R";
+
+        private final Path file;
+        private OutputStream log;
+
+        public FileEventStore(Path file) {
+            this.file = file;
+            try {
+                if (Files.exists(file)) {
+                    load();
+                }
+                compact();
+                log = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new StoreException("Could not open store file " + file, e);
+            }
+        }
+
+        private void load() throws IOException {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    String[] f = decode(line);
+                    switch (f[0]) {
+                        case EVENT:
+                            // Logs written before events had times carry 7 fields
+                            super.addEvent(readEvent(f));
+                            break;
+                        case SLOTS:
+                            readSlots(events.get(f[1]), f);
+                            break;
+                        case REGISTRATION:
+                            appendResident(f[1], java.util.Collections.singletonList(readRegistration(f)));
+                            break;
+                        default:
+                            throw new IOException("Unknown record type in " + file + ": " + f[0]);
+                    }
+                }
+            }
+        }
+
+        // Rewrites the log as one record per event and registration, replacing the file atomically
+        private void compact() throws IOException {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (EventData event : events.values()) {
+                    writeEvent(out, event);
+                    for (Registration registration : registrations.get(event.getEventName())) {
+                        writeRegistration(out, registration);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Records are logged before memory changes, in one unbuffered write, so a failed write leaves
+        // both the log and the in-memory state as they were
+        private void append(String records) {
+            try {
+                log.write(records.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new StoreException("Could not write to " + file, e);
+            }
+        }
+
+        @Override
+        public synchronized void addEvent(EventData event) {
+            if (events.containsKey(event.getEventName())) {
+                throw new DuplicateEventException(event.getEventName());
+            }
+            StringWriter record = new StringWriter();
+            try {
+                writeEvent(record, event);
+            } catch (IOException e) {
+                throw new StoreException("Could not encode event " + event.getEventName(), e);
+            }
+            append(record.toString());
+            super.addEvent(event);
+        }
+
+        @Override
+        public synchronized int registerAll(String eventName, java.util.List<Registration> candidates, boolean allOrNothing,
+                                            long expectedVersion) {
+            EventData event = events.get(eventName);
+            if (event == null) {
+                return 0;
+            }
+            if (event.getVersion() != expectedVersion) {
+                throw new StaleVersionException(eventName);
+            }
+            int reserved = event.reservableSlots(candidates.size(), allOrNothing);
+            if (reserved == 0) {
+                return 0;
+            }
+            append(registrationRecords(event, candidates.subList(0, reserved)));
+            return super.registerAll(eventName, candidates, allOrNothing, expectedVersion);
+        }
+
+        @Override
+        public synchronized void close() {
+            try {
+                log.close();
+            } catch (IOException e) {
+                throw new StoreException("Could not close " + file, e);
+            }
+            super.close();
+        }
+
+        private static void writeEvent(Writer out, EventData event) throws IOException {
+            out.write(encode(EVENT, event.getEventName(), event.getClubName(), event.getEventDate(), event.getEventType(),
+                String.valueOf(event.getInitialSlots()), String.valueOf(event.getAvailableSlots()),
+                event.getStartTime(), event.getEndTime(), String.valueOf(event.getVersion())));
+            out.write('\n');
+        }
+
+        private static void writeSlots(Writer out, String eventName, int availableSlots, long version) throws IOException {
+            out.write(encode(SLOTS, eventName, String.valueOf(availableSlots), String.valueOf(version)));
+            out.write('\n');
+        }
+
+        // The slot record the event will have once the batch is reserved, followed by the batch itself
+        private static String registrationRecords(EventData event, java.util.List<Registration> batch) {
+            StringWriter records = new StringWriter();
+            try {
+                writeSlots(records, event.getEventName(), event.getAvailableSlots() - batch.size(), event.getVersion() + 1);
+                for (Registration registration : batch) {
+                    writeRegistration(records, registration);
+                }
+            } catch (IOException e) {
+                throw new StoreException("Could not encode registrations for " + event.getEventName(), e);
+            }
+            return records.toString();
+        }
+
+        // Logs written before events had times carry 7 fields, and before versions 9
+        private static EventData readEvent(String[] f) {
+            EventData event = new EventData(f[1], f[2], f[3], f.length > 8 ? f[7] : "", f.length > 8 ? f[8] : "",
+                f[4], Integer.parseInt(f[5]), Integer.parseInt(f[6]));
+            event.applySlots(event.getAvailableSlots(), f.length > 9 ? Long.parseLong(f[9]) : 0);
+            return event;
+        }
+
+        private static void readSlots(EventData event, String[] f) {
+            event.applySlots(Integer.parseInt(f[2]), f.length > 3 ? Long.parseLong(f[3]) : event.getVersion() + 1);
+        }
+
+        private static Registration readRegistration(String[] f) {
+            return new Registration(f[2], f[3], f[1], f[4]);
+        }
+
+        private static void writeRegistration(Writer out, Registration registration) throws IOException {
+            out.write(encode(REGISTRATION, registration.getEventName(), registration.getRollNumber(),
+                registration.getStudentName(), registration.getRegistrationDate()));
+            out.write('\n');
+        }
+
+        // Tab separated fields; backslash escapes tabs, newlines and itself
+        private static String encode(String... fields) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                for (char c : fields[i].toCharArray()) {
+                    switch (c) {
+                        case '\\': line.append("\\\\"); break;
+                        case '\t': line.append("\\t"); break;
+                        case '\n': line.append("\\n"); break;
+                        case '\r': line.append("\\r"); break;
+                        default: line.append(c);
+                    }
+                }
+            }
+            return line.toString();
+        }
+
+        private static String[] decode(String line) {
+            java.util.List<String> fields = new java.util.ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '\t') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\\' && i + 1 < line.length()) {
+                    char next = line.charAt(++i);
+                    field.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    // Store shared by several app instances (separate JVMs on one host) through one append-only log.
+    // Each instance replays the log into memory. Writers take an exclusive file lock, catch up on what
+    // others appended and commit only if the event is still at the version their checks were based on;
+    // otherwise StaleVersionException makes RegistrationService re-validate and retry. A WatchService on
+    // the log's directory pushes other instances' appends to the change listener without polling.
+    private static class SharedFileEventStore extends InMemoryEventStore {
+        private final Path file;
+        private final FileChannel channel;
+        private final WatchService watcher;
+        private long readOffset;
+        private volatile RegistrationListener changeListener;
+
+        public SharedFileEventStore(Path file) {
+            this.file = file.toAbsolutePath();
+            try {
+                channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+                catchUp(false);
+                watcher = FileSystems.getDefault().newWatchService();
+                this.file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            } catch (IOException e) {
+                throw new StoreException("Could not open shared store " + file, e);
+            }
+            Thread watchThread = new Thread(this::watch, "shared-store-watcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        }
+
+        private void watch() {
+            while (true) {
+                try {
+                    WatchKey key = watcher.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= file.getFileName().equals(event.context());
+                    }
+                    key.reset();
+                    if (changed) {
+                        synchronized (this) {
+                            catchUp(false);
+                        }
+                    }
+                } catch (InterruptedException | ClosedWatchServiceException | java.nio.channels.ClosedChannelException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Could not read shared store " + file + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // Applies complete records appended since the last read and returns the registrations among them
+        // by event; callers hold this store's monitor
+        private Map<String, java.util.List<Registration>> catchUp(boolean locked) throws IOException {
+            FileLock lock = locked ? null : channel.lock(0, Long.MAX_VALUE, true);
+            try {
+                long size = channel.size();
+                if (size <= readOffset) {
+                    return java.util.Collections.emptyMap();
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) (size - readOffset));
+                while (buffer.hasRemaining() && channel.read(buffer, readOffset + buffer.position()) > 0) {
+                    // keep reading until the buffer is full
+                }
+                int end = buffer.position();
+                while (end > 0 && buffer.get(end - 1) != '\n') {
+                    end--;
+                }
+                readOffset += end;
+
+                java.util.List<EventData> created = new java.util.ArrayList<>();
+                Map<String, java.util.List<Registration>> registered = new java.util.LinkedHashMap<>();
+                for (String line : new String(buffer.array(), 0, end, StandardCharsets.UTF_8).split("\n")) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    String[] f = FileEventStore.decode(line);
+                    switch (f[0]) {
+                        case FileEventStore.EVENT:
+                            EventData event = FileEventStore.readEvent(f);
+                            super.addEvent(event);
+                            created.add(event);
+                            break;
+                        case FileEventStore.SLOTS:
+                            FileEventStore.readSlots(events.get(f[1]), f);
+                            break;
+                        case FileEventStore.REGISTRATION:
+                            Registration registration = FileEventStore.readRegistration(f);
+                            appendResident(f[1], java.util.Collections.singletonList(registration));
+                            registered.computeIfAbsent(f[1], k -> new java.util.ArrayList<>()).add(registration);
+                            break;
+                        default:
+                            throw new IOException("Unknown record type in " + file + ": " + f[0]);
+                    }
+                }
+
+                RegistrationListener listener = changeListener;
+                if (listener != null) {
+                    created.forEach(listener::eventCreated);
+                    registered.forEach(listener::registered);
+                }
+                return registered;
+            } finally {
+                if (lock != null) {
+                    lock.release();
+                }
+            }
+        }
+
+        private void append(String records) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(records.getBytes(StandardCharsets.UTF_8));
+            long position = channel.size();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            readOffset = position;
+        }
+
+        // Candidates registered for an overlapping event among the given bookings, mapped to that event's name
+        private Map<String, String> findScheduleClashes(EventData event, java.util.List<Registration> candidates,
+                                                        Map<String, java.util.List<Registration>> bookings) {
+            Map<String, String> clashes = new java.util.LinkedHashMap<>();
+            if (!event.hasTimeWindow() || bookings.isEmpty()) {
+                return clashes;
+            }
+            java.util.Set<String> rollNumbers = new java.util.HashSet<>();
+            for (Registration candidate : candidates) {
+                rollNumbers.add(candidate.getRollNumber());
+            }
+            bookings.forEach((otherName, registrations) -> {
+                EventData other = events.get(otherName);
+                if (other != event && other.hasTimeWindow() && other.getStartMinute() < event.getEndMinute()
+                        && event.getStartMinute() < other.getEndMinute()) {
+                    for (Registration registration : registrations) {
+                        if (rollNumbers.contains(registration.getRollNumber())) {
+                            clashes.putIfAbsent(registration.getRollNumber(), otherName);
+                        }
+                    }
+                }
+            });
+            return clashes;
+        }
+
+        @Override
+        public void setChangeListener(RegistrationListener listener) {
+            changeListener = listener;
+        }
+
+        // Copies, since the watcher thread may append while the caller iterates
+        @Override
+        public synchronized java.util.List<Registration> getRegistrations(String eventName) {
+            return new java.util.ArrayList<>(super.getRegistrations(eventName));
+        }
+
+        @Override
+        public synchronized void addEvent(EventData event) {
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    catchUp(true);
+                    if (events.containsKey(event.getEventName())) {
+                        throw new DuplicateEventException(event.getEventName());
+                    }
+                    StringWriter record = new StringWriter();
+                    FileEventStore.writeEvent(record, event);
+                    append(record.toString());
+                    super.addEvent(event);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new StoreException("Could not write to " + file, e);
+            }
+        }
+
+        @Override
+        public synchronized int registerAll(String eventName, java.util.List<Registration> candidates, boolean allOrNothing,
+                                            long expectedVersion) {
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, java.util.List<Registration>> readNow = catchUp(true);
+                    EventData event = events.get(eventName);
+                    if (event == null) {
+                        return 0;
+                    }
+                    if (event.getVersion() != expectedVersion) {
+                        throw new StaleVersionException(eventName);
+                    }
+                    // Another instance may have booked one of these students into an overlapping event since the
+                    // caller's schedule check; only the bookings just read can be new to the caller
+                    Map<String, String> clashes = findScheduleClashes(event, candidates, readNow);
+                    if (!clashes.isEmpty()) {
+                        throw new ScheduleClashException(eventName, clashes);
+                    }
+                    int reserved = event.reservableSlots(candidates.size(), allOrNothing);
+                    if (reserved == 0) {
+                        return 0;
+                    }
+                    // Appended before memory changes, as in FileEventStore
+                    append(FileEventStore.registrationRecords(event, candidates.subList(0, reserved)));
+                    return super.registerAll(eventName, candidates, allOrNothing, expectedVersion);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new StoreException("Could not write to " + file, e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            try {
+                watcher.close();
+                channel.close();
+            } catch (IOException e) {
+                throw new StoreException("Could not close " + file, e);
+            }
+            super.close();
+        }
+    }
+
+    // Fixed-size JDBC connection pool; connections are opened lazily up to the pool size
+    private static class ConnectionPool {
+        private final String url;
+        private final BlockingQueue<Connection> idle;
+        private final java.util.List<Connection> all = new java.util.ArrayList<>();
+        private final int size;
+
+        public ConnectionPool(String url, int size) {
+            this.url = url;
+            this.size = size;
+            this.idle = new ArrayBlockingQueue<>(size);
+        }
+
+        public Connection acquire() throws SQLException {
+            Connection connection = idle.poll();
+            if (connection != null) {
+                return connection;
+            }
+            synchronized (all) {
+                if (all.size() < size) {
+                    connection = DriverManager.getConnection(url);
+                    all.add(connection);
+                    return connection;
+                }
+            }
+            try {
+                return idle.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+        }
+
+        public void release(Connection connection) {
+            idle.offer(connection);
+        }
+
+        public void close() {
+            synchronized (all) {
+                for (Connection connection : all) {
+                    try {
+                        connection.close();
+                    } catch (SQLException ignored) {
+                        // Closing on shutdown; nothing left to do with the connection
+                    }
+                }
+                all.clear();
+            }
+        }
+    }
+
+    // Embedded SQL store (H2 or SQLite file URL, driver on the classpath).
+    // Events are cached in memory; registrations are queried on demand and inserted in JDBC batches.
+    private static class JdbcEventStore implements EventStore {
+        private static final int FIND_CHUNK = 100;
+
+        private final ConnectionPool pool;
+        private final Map<String, EventData> events = new java.util.LinkedHashMap<>();
+        private long nextSeq;
+
+        public JdbcEventStore(String url, int poolSize) {
+            this.pool = new ConnectionPool(url, poolSize);
+            try {
+                Connection connection = pool.acquire();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE IF NOT EXISTS events (event_name VARCHAR(255) PRIMARY KEY, "
+                        + "club_name VARCHAR(255), event_date VARCHAR(32), event_type VARCHAR(255), "
+                        + "initial_slots INT, available_slots INT, start_time VARCHAR(5), end_time VARCHAR(5))");
+                    addMissingColumn(connection, statement, "events", "start_time", "VARCHAR(5)");
+                    addMissingColumn(connection, statement, "events", "end_time", "VARCHAR(5)");
+                    statement.execute("CREATE TABLE IF NOT EXISTS registrations (seq BIGINT PRIMARY KEY, "
+                        + "event_name VARCHAR(255), roll_number VARCHAR(255), student_name VARCHAR(255), "
+                        + "registration_date VARCHAR(64))");
+                    statement.execute("CREATE INDEX IF NOT EXISTS idx_registrations_event ON registrations (event_name)");
+                    statement.execute("CREATE INDEX IF NOT EXISTS idx_registrations_roll ON registrations (event_name, roll_number)");
+
+                    try (ResultSet rs = statement.executeQuery("SELECT event_name, club_name, event_date, event_type, "
+                            + "initial_slots, available_slots, start_time, end_time FROM events")) {
+                        while (rs.next()) {
+                            events.put(rs.getString(1), new EventData(rs.getString(1), rs.getString(2), rs.getString(3),
+                                rs.getString(7), rs.getString(8), rs.getString(4), rs.getInt(5), rs.getInt(6)));
+                        }
+                    }
+                    try (ResultSet rs = statement.executeQuery("SELECT MAX(seq) FROM registrations")) {
+                        nextSeq = rs.next() ? rs.getLong(1) + 1 : 0;
+                    }
+                } finally {
+                    pool.release(connection);
+                }
+            } catch (SQLException e) {
+                pool.close();
+                throw new StoreException("Could not open database " + url, e);
+            }
+        }
+
+        // Upgrades databases created before a column existed; H2 and SQLite disagree on ADD COLUMN IF NOT EXISTS
+        private static void addMissingColumn(Connection connection, Statement statement, String table, String column,
+                                             String type) throws SQLException {
+            try (ResultSet rs = connection.getMetaData().getColumns(null, null, null, null)) {
+                while (rs.next()) {
+                    if (table.equalsIgnoreCase(rs.getString("TABLE_NAME")) && column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        return;
+                    }
+                }
+            }
+            statement.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        }
+
+        @Override
+        public synchronized EventData getEvent(String eventName) { return events.get(eventName); }
+
+        @Override
+        public synchronized java.util.Collection<EventData> getEvents() { return new java.util.ArrayList<>(events.values()); }
+
+        @Override
+        public synchronized java.util.Set<String> getEventNames() { return new java.util.LinkedHashSet<>(events.keySet()); }
+
+        @Override
+        public synchronized void addEvent(EventData event) {
+            if (events.containsKey(event.getEventName())) {
+                throw new DuplicateEventException(event.getEventName());
+            }
+            try {
+                Connection connection = pool.acquire();
+                try (PreparedStatement insert = connection.prepareStatement("INSERT INTO events (event_name, club_name, "
+                        + "event_date, event_type, initial_slots, available_slots, start_time, end_time) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                    insert.setString(1, event.getEventName());
+                    insert.setString(2, event.getClubName());
+                    insert.setString(3, event.getEventDate());
+                    insert.setString(4, event.getEventType());
+                    insert.setInt(5, event.getInitialSlots());
+                    insert.setInt(6, event.getAvailableSlots());
+                    insert.setString(7, event.getStartTime());
+                    insert.setString(8, event.getEndTime());
+                    insert.executeUpdate();
+                } finally {
+                    pool.release(connection);
+                }
+            } catch (SQLException e) {
+                throw new StoreException("Could not save event " + event.getEventName(), e);
+            }
+            events.put(event.getEventName(), event);
+        }
+
+        @Override
+        public java.util.List<Registration> getRegistrations(String eventName) {
+            java.util.List<Registration> result = new java.util.ArrayList<>();
+            try {
+                Connection connection = pool.acquire();
+                try (PreparedStatement query = connection.prepareStatement("SELECT roll_number, student_name, "
+                        + "registration_date FROM registrations WHERE event_name = ? ORDER BY seq")) {
+                    query.setString(1, eventName);
+                    try (ResultSet rs = query.executeQuery()) {
+                        while (rs.next()) {
+                            result.add(new Registration(rs.getString(1), rs.getString(2), eventName, rs.getString(3)));
+                        }
+                    }
+                } finally {
+                    pool.release(connection);
+                }
+            } catch (SQLException e) {
+                throw new StoreException("Could not load registrations for " + eventName, e);
+            }
+            return result;
+        }
+
+        // Looks roll numbers up through the (event_name, roll_number) index, FIND_CHUNK at a time
+        @Override
+        public java.util.Set<String> findRegistered(String eventName, java.util.Collection<String> rollNumbers) {
+            java.util.List<String> wanted = new java.util.ArrayList<>(new java.util.LinkedHashSet<>(rollNumbers));
+            java.util.Set<String> found = new java.util.HashSet<>();
+            try {
+                Connection connection = pool.acquire();
+                try {
+                    for (int from = 0; from < wanted.size(); from += FIND_CHUNK) {
+                        java.util.List<String> chunk = wanted.subList(from, Math.min(wanted.size(), from + FIND_CHUNK));
+                        String placeholders = String.join(", ", java.util.Collections.nCopies(chunk.size(), "?"));
+                        try (PreparedStatement query = connection.prepareStatement("SELECT roll_number FROM registrations "
+                                + "WHERE event_name = ? AND roll_number IN (" + placeholders + ")")) {
+                            query.setString(1, eventName);
+                            for (int i = 0; i < chunk.size(); i++) {
+                                query.setString(i + 2, chunk.get(i));
+                            }
+                            try (ResultSet rs = query.executeQuery()) {
+                                while (rs.next()) {
+                                    found.add(rs.getString(1));
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    pool.release(connection);
+                }
+            } catch (SQLException e) {
+                throw new StoreException("Could not check registrations for " + eventName, e);
+            }
+            return found;
+        }
+
+        // The slot update and the batched inserts share one transaction
+        @Override
+        public synchronized int registerAll(String eventName, java.util.List<Registration> candidates, boolean allOrNothing,
+                                            long expectedVersion) {
+            EventData event = events.get(eventName);
+            if (event == null) {
+                return 0;
+            }
+            if (event.getVersion() != expectedVersion) {
+                throw new StaleVersionException(eventName);
+            }
+            int reserved = event.reservableSlots(candidates.size(), allOrNothing);
+            if (reserved == 0) {
+                return 0;
+            }
+
+            try {
+                Connection connection = pool.acquire();
+                try {
+                    connection.setAutoCommit(false);
+                    try (PreparedStatement update = connection.prepareStatement(
+                            "UPDATE events SET available_slots = available_slots - ? WHERE event_name = ? AND available_slots >= ?");
+                         PreparedStatement insert = connection.prepareStatement("INSERT INTO registrations (seq, event_name, "
+                            + "roll_number, student_name, registration_date) VALUES (?, ?, ?, ?, ?)")) {
+                        update.setInt(1, reserved);
+                        update.setString(2, eventName);
+                        update.setInt(3, reserved);
+                        if (update.executeUpdate() != 1) {
+                            connection.rollback();
+                            return 0;
+                        }
+                        long seq = nextSeq;
+                        for (Registration registration : candidates.subList(0, reserved)) {
+                            insert.setLong(1, seq++);
+                            insert.setString(2, eventName);
+                            insert.setString(3, registration.getRollNumber());
+                            insert.setString(4, registration.getStudentName());
+                            insert.setString(5, registration.getRegistrationDate());
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                        connection.commit();
+                        nextSeq = seq;
+                    } catch (SQLException e) {
+                        connection.rollback();
+                        throw e;
+                    } finally {
+                        connection.setAutoCommit(true);
+                    }
+                } finally {
+                    pool.release(connection);
+                }
+            } catch (SQLException e) {
+                throw new StoreException("Could not register for " + eventName, e);
+            }
+            event.reserveSlots(reserved, true);
+            return reserved;
+        }
+
+        @Override
+        public void close() {
+            pool.close();
+        }
+    }
+
+    // Notified by RegistrationService after an event is created or registrations are committed
+    private interface RegistrationListener {
+        void eventCreated(EventData event);
+        void registered(String eventName, java.util.List<Registration> batch);
+
+        // Committed by another app instance sharing the store; handled like local changes unless overridden
+        default void eventCreatedElsewhere(EventData event) { eventCreated(event); }
+        default void registeredElsewhere(String eventName, java.util.List<Registration> batch) { registered(eventName, batch); }
+    }
+
+    // Registrations table columns, in display order, with the ordering each one sorts by
+    private enum SortKey {
+        NAME("Student Name", java.util.Comparator.comparing(Registration::getStudentName, String.CASE_INSENSITIVE_ORDER)),
+        ROLL("Roll Number", java.util.Comparator.comparing(Registration::getRollNumber)),
+        EVENT("Event Name", java.util.Comparator.comparing(Registration::getEventName)),
+        DATE("Registration Date", java.util.Comparator.comparing(Registration::getRegistrationDate));
+
+        private final String columnName;
+        private final java.util.Comparator<Registration> comparator;
+
+        SortKey(String columnName, java.util.Comparator<Registration> comparator) {
+            this.columnName = columnName;
+            // Ties fall back to date then roll number so every index has a stable order
+            this.comparator = comparator
+                .thenComparing(Registration::getRegistrationDate)
+                .thenComparing(Registration::getRollNumber);
+        }
+
+        public String getColumnName() { return columnName; }
+        public java.util.Comparator<Registration> getComparator() { return comparator; }
+    }
+
+    // Keeps every registration in one sorted list per SortKey, maintained by binary insertion,
+    // so the table never sorts on the EDT
+    private static class RegistrationIndex implements RegistrationListener {
+        private final Map<SortKey, java.util.ArrayList<Registration>> sorted = new java.util.EnumMap<>(SortKey.class);
+
+        public RegistrationIndex() {
+            for (SortKey key : SortKey.values()) {
+                sorted.put(key, new java.util.ArrayList<>());
+            }
+        }
+
+        public synchronized void addAll(java.util.List<Registration> batch) {
+            for (SortKey key : SortKey.values()) {
+                java.util.ArrayList<Registration> list = sorted.get(key);
+                if (batch.size() > list.size() / 16) {
+                    // Large batch (or initial load): appending and re-sorting beats repeated shifting
+                    list.addAll(batch);
+                    list.sort(key.getComparator());
+                } else {
+                    for (Registration registration : batch) {
+                        int position = java.util.Collections.binarySearch(list, registration, key.getComparator());
+                        list.add(position < 0 ? -position - 1 : position, registration);
+                    }
+                }
+            }
+        }
+
+        // Drops a spilled event's registrations so the heap they used can be reclaimed
+        public synchronized void removeEvent(String eventName) {
+            for (java.util.ArrayList<Registration> list : sorted.values()) {
+                list.removeIf(registration -> eventName.equals(registration.getEventName()));
+            }
+        }
+
+        // The live sorted list for all events, or a sorted copy filtered to one event
+        public synchronized java.util.List<Registration> view(SortKey key, String eventName) {
+            java.util.List<Registration> list = sorted.get(key);
+            if (eventName == null) {
+                return java.util.Collections.unmodifiableList(list);
+            }
+            java.util.List<Registration> filtered = new java.util.ArrayList<>();
+            for (Registration registration : list) {
+                if (eventName.equals(registration.getEventName())) {
+                    filtered.add(registration);
+                }
+            }
+            return filtered;
+        }
+
+        @Override
+        public void eventCreated(EventData event) {
+        }
+
+        @Override
+        public void registered(String eventName, java.util.List<Registration> batch) {
+            addAll(batch);
+        }
+    }
+
+    // Table model showing one page of an already sorted list; descending order just reads it backwards
+    private static class RegistrationPageModel extends javax.swing.table.AbstractTableModel {
+        private final int pageSize;
+        private java.util.List<Registration> rows = java.util.Collections.emptyList();
+        private SortKey sortKey = SortKey.DATE;
+        private boolean ascending = true;
+        private int page;
+
+        public RegistrationPageModel(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        public void setRows(java.util.List<Registration> rows) {
+            this.rows = rows;
+            page = Math.max(0, Math.min(page, getPageCount() - 1));
+            fireTableDataChanged();
+        }
+
+        public void sortBy(SortKey key) {
+            ascending = key != sortKey || !ascending;
+            sortKey = key;
+            page = 0;
+        }
+
+        public SortKey getSortKey() { return sortKey; }
+        public int getPage() { return page; }
+        public void setPage(int page) { this.page = Math.max(0, Math.min(page, getPageCount() - 1)); }
+        public int getTotalRows() { return rows.size(); }
+        public int getPageCount() { return Math.max(1, (rows.size() + pageSize - 1) / pageSize); }
+
+        @Override
+        public int getRowCount() {
+            return Math.max(0, Math.min(pageSize, rows.size() - page * pageSize));
+        }
+
+        @Override
+        public int getColumnCount() {
+            return SortKey.values().length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            SortKey key = SortKey.values()[column];
+            return key != sortKey ? key.getColumnName() : key.getColumnName() + (ascending ? " ▲" : " ▼");
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int index = page * pageSize + row;
+            Registration registration = rows.get(ascending ? index : rows.size() - 1 - index);
+            switch (SortKey.values()[column]) {
+                case NAME: return registration.getStudentName();
+                case ROLL: return registration.getRollNumber();
+                case EVENT: return registration.getEventName();
+                default: return registration.getRegistrationDate();
+            }
+        }
+    }
+
+    // Registration index and fill-rate tracker read off the EDT, with the event versions they reflect
+    private static class DerivedData {
+        private final RegistrationIndex index = new RegistrationIndex();
+        private final FillRateTracker tracker = new FillRateTracker();
+        private final Map<String, Long> versions = new HashMap<>();
+        private final java.util.Set<String> resident = new java.util.HashSet<>();
+    }
+
+    // Per-event ring buffers of per-minute registration counts covering the last BUCKETS minutes.
+    // Older registrations are folded into a baseline so cumulative curves stay correct.
+    private static class FillRateTracker implements RegistrationListener {
+        public static final int BUCKETS = 24 * 60;
+        public static final int RATE_WINDOW = 15;
+
+        private final Map<String, MinuteRing> rings = new HashMap<>();
+
+        private static class MinuteRing {
+            private final int[] counts = new int[BUCKETS];
+            private long headMinute;
+            private int baseline;
+
+            MinuteRing(long nowMinute) {
+                headMinute = nowMinute;
+            }
+
+            // Moves the head forward, retiring buckets that fall out of the window into the baseline
+            void advanceTo(long minute) {
+                if (minute <= headMinute) {
+                    return;
+                }
+                long steps = Math.min(minute - headMinute, BUCKETS);
+                for (long m = minute - steps + 1; m <= minute; m++) {
+                    int slot = (int) Math.floorMod(m, (long) BUCKETS);
+                    baseline += counts[slot];
+                    counts[slot] = 0;
+                }
+                headMinute = minute;
+            }
+
+            void add(long minute, int count) {
+                advanceTo(minute);
+                if (minute <= headMinute - BUCKETS) {
+                    baseline += count;
+                } else {
+                    counts[(int) Math.floorMod(minute, (long) BUCKETS)] += count;
+                }
+            }
+        }
+
+        private static long nowMinute() {
+            return System.currentTimeMillis() / 60000;
+        }
+
+        // (Re)loads an event's registrations by their timestamps; unparseable dates count as old
+        public void seedEvent(String eventName, EventStore store) {
+            long now = nowMinute();
+            MinuteRing ring = new MinuteRing(now);
+            store.forEachRegistration(eventName, registration -> {
+                try {
+                    long millis = java.time.LocalDateTime.parse(registration.getRegistrationDate())
+                        .atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    ring.add(Math.min(millis / 60000, now), 1);
+                } catch (java.time.format.DateTimeParseException e) {
+                    ring.baseline++;
+                }
+            });
+            synchronized (this) {
+                rings.put(eventName, ring);
+            }
+        }
+
+        public synchronized void record(String eventName, long minute, int count) {
+            rings.computeIfAbsent(eventName, k -> new MinuteRing(minute)).add(minute, count);
+        }
+
+        // Cumulative registrations at the end of each of the last 'minutes' minutes, oldest first
+        public synchronized int[] fillCurve(String eventName, int minutes) {
+            minutes = Math.min(minutes, BUCKETS);
+            int[] curve = new int[minutes];
+            MinuteRing ring = rings.get(eventName);
+            if (ring == null) {
+                return curve;
+            }
+            long now = nowMinute();
+            ring.advanceTo(now);
+            int total = ring.baseline;
+            for (long m = now - BUCKETS + 1; m <= now; m++) {
+                total += ring.counts[(int) Math.floorMod(m, (long) BUCKETS)];
+                int index = (int) (m - (now - minutes + 1));
+                if (index >= 0) {
+                    curve[index] = total;
+                }
+            }
+            return curve;
+        }
+
+        public synchronized double ratePerMinute(String eventName, int minutes) {
+            MinuteRing ring = rings.get(eventName);
+            if (ring == null) {
+                return 0;
+            }
+            long now = nowMinute();
+            ring.advanceTo(now);
+            int sum = 0;
+            for (long m = now - minutes + 1; m <= now; m++) {
+                sum += ring.counts[(int) Math.floorMod(m, (long) BUCKETS)];
+            }
+            return (double) sum / minutes;
+        }
+
+        @Override
+        public void eventCreated(EventData event) {
+            record(event.getEventName(), nowMinute(), 0);
+        }
+
+        @Override
+        public void registered(String eventName, java.util.List<Registration> batch) {
+            record(eventName, nowMinute(), batch.size());
+        }
+    }
+
+    // Line chart of an event's fill percentage over time
+    private static class FillRateChart extends JPanel {
+        private int[] curve = new int[0];
+        private int capacity = 1;
+
+        public FillRateChart() {
+            setBackground(CARD_BG);
+            setPreferredSize(new Dimension(600, 300));
+        }
+
+        public void setCurve(int[] curve, int capacity) {
+            this.curve = curve;
+            this.capacity = Math.max(1, capacity);
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            int left = 45;
+            int bottom = getHeight() - 25;
+            int width = getWidth() - left - 10;
+            int height = bottom - 10;
+
+            // Axes and gridlines at 25% steps
+            g2.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            for (int percent = 0; percent <= 100; percent += 25) {
+                int y = bottom - height * percent / 100;
+                g2.setColor(BORDER_COLOR);
+                g2.drawLine(left, y, left + width, y);
+                g2.setColor(TEXT_SECONDARY);
+                g2.drawString(percent + "%", 5, y + 4);
+            }
+            g2.drawString("-" + curve.length + " min", left, bottom + 18);
+            g2.drawString("now", left + width - 25, bottom + 18);
+
+            if (curve.length > 1) {
+                int[] xs = new int[curve.length];
+                int[] ys = new int[curve.length];
+                for (int i = 0; i < curve.length; i++) {
+                    xs[i] = left + (int) ((long) width * i / (curve.length - 1));
+                    ys[i] = bottom - (int) ((long) height * Math.min(curve[i], capacity) / capacity);
+                }
+                g2.setColor(PRIMARY_COLOR);
+                g2.setStroke(new BasicStroke(2f));
+                g2.drawPolyline(xs, ys, curve.length);
+            }
+            g2.dispose();
+        }
+    }
+
+    // Two events one student is registered for whose time windows overlap
+    private static class ScheduleConflict {
+        private final String rollNumber;
+        private final String firstEvent;
+        private final String secondEvent;
+
+        public ScheduleConflict(String rollNumber, String firstEvent, String secondEvent) {
+            this.rollNumber = rollNumber;
+            this.firstEvent = firstEvent;
+            this.secondEvent = secondEvent;
+        }
+
+        public String getRollNumber() { return rollNumber; }
+        public String getFirstEvent() { return firstEvent; }
+        public String getSecondEvent() { return secondEvent; }
+    }
+
+    // Per-student time bookings keyed by roll number. Each student's TreeMap is ordered by start and every
+    // slot also carries the latest end of all bookings starting at or before it, so a check stays O(log n)
+    // even when stored data already holds overlapping bookings (the Conflict Report lists those).
+    private static class ScheduleIndex {
+        private final Map<String, java.util.TreeMap<Long, Slot>> bookings = new HashMap<>();
+
+        // The bookings that start at one minute
+        private static class Slot {
+            private final java.util.List<EventData> events = new java.util.ArrayList<>();
+            private long latestEnd = Long.MIN_VALUE;
+        }
+
+        // Books the event for the student unless it overlaps; returns the clashing event's name, or null
+        public synchronized String tryBook(String rollNumber, EventData event) {
+            if (!event.hasTimeWindow()) {
+                return null;
+            }
+            java.util.TreeMap<Long, Slot> schedule = bookings.computeIfAbsent(rollNumber, k -> new java.util.TreeMap<>());
+            String clash = findClash(schedule, event);
+            if (clash == null) {
+                insert(schedule, event);
+            }
+            return clash;
+        }
+
+        // Records an existing registration without checking; used when loading stored data
+        public synchronized void add(String rollNumber, EventData event) {
+            if (event.hasTimeWindow()) {
+                insert(bookings.computeIfAbsent(rollNumber, k -> new java.util.TreeMap<>()), event);
+            }
+        }
+
+        public synchronized void release(String rollNumber, EventData event) {
+            java.util.TreeMap<Long, Slot> schedule = bookings.get(rollNumber);
+            Slot slot = schedule == null || !event.hasTimeWindow() ? null : schedule.get(event.getStartMinute());
+            if (slot != null && slot.events.removeIf(booked -> booked.getEventName().equals(event.getEventName()))) {
+                if (slot.events.isEmpty()) {
+                    schedule.remove(event.getStartMinute());
+                }
+                updateLatestEnds(schedule, event.getStartMinute());
+            }
+        }
+
+        private static String findClash(java.util.TreeMap<Long, Slot> schedule, EventData event) {
+            // Anything starting inside the new window overlaps it
+            Map.Entry<Long, Slot> inside = schedule.ceilingEntry(event.getStartMinute());
+            if (inside != null && inside.getKey() < event.getEndMinute()) {
+                return inside.getValue().events.get(0).getEventName();
+            }
+            // Something starting earlier overlaps only if it is still running; walk back to find which
+            Map.Entry<Long, Slot> earlier = schedule.lowerEntry(event.getStartMinute());
+            if (earlier == null || earlier.getValue().latestEnd <= event.getStartMinute()) {
+                return null;
+            }
+            for (; earlier != null; earlier = schedule.lowerEntry(earlier.getKey())) {
+                for (EventData booked : earlier.getValue().events) {
+                    if (booked.getEndMinute() > event.getStartMinute()) {
+                        return booked.getEventName();
+                    }
+                }
+            }
+            return null;
+        }
+
+        // Adding a booking twice is harmless: a slot holds each event once
+        private static void insert(java.util.TreeMap<Long, Slot> schedule, EventData event) {
+            Slot slot = schedule.computeIfAbsent(event.getStartMinute(), k -> new Slot());
+            if (slot.events.stream().noneMatch(booked -> booked.getEventName().equals(event.getEventName()))) {
+                slot.events.add(event);
+                updateLatestEnds(schedule, event.getStartMinute());
+            }
+        }
+
+        // Recomputes the running latest end from the changed slot onwards, stopping once it is unchanged
+        private static void updateLatestEnds(java.util.TreeMap<Long, Slot> schedule, long fromMinute) {
+            Map.Entry<Long, Slot> previous = schedule.lowerEntry(fromMinute);
+            long latestEnd = previous == null ? Long.MIN_VALUE : previous.getValue().latestEnd;
+            for (Slot slot : schedule.tailMap(fromMinute, true).values()) {
+                for (EventData booked : slot.events) {
+                    latestEnd = Math.max(latestEnd, booked.getEndMinute());
+                }
+                if (slot.latestEnd == latestEnd) {
+                    return;
+                }
+                slot.latestEnd = latestEnd;
+            }
+        }
+
+        // Every overlapping pair of registrations in the store: each student's events are sorted
+        // by start and swept once, comparing against the open windows that have not ended yet
+        public static java.util.List<ScheduleConflict> conflictReport(EventStore store) {
+            Map<String, java.util.List<EventData>> byStudent = new java.util.TreeMap<>();
+            for (EventData event : store.getEvents()) {
+                if (!event.hasTimeWindow()) {
+                    continue;
+                }
+                store.forEachRegistration(event.getEventName(), registration ->
+                    byStudent.computeIfAbsent(registration.getRollNumber(), k -> new java.util.ArrayList<>()).add(event));
+            }
+
+            java.util.List<ScheduleConflict> conflicts = new java.util.ArrayList<>();
+            for (Map.Entry<String, java.util.List<EventData>> entry : byStudent.entrySet()) {
+                java.util.List<EventData> events = entry.getValue();
+                events.sort(java.util.Comparator.comparingLong(EventData::getStartMinute));
+                java.util.List<EventData> open = new java.util.ArrayList<>();
+                for (EventData event : events) {
+                    open.removeIf(o -> o.getEndMinute() <= event.getStartMinute());
+                    for (EventData o : open) {
+                        conflicts.add(new ScheduleConflict(entry.getKey(), o.getEventName(), event.getEventName()));
+                    }
+                    open.add(event);
+                }
+            }
+            return conflicts;
+        }
+    }
+
+    // Outbound confirmation message for one registration
+    private static class Notification {
+        private final String recipient;
+        private final String subject;
+        private final String body;
+        private final String createdAt;
+        private int attempts;
+
+        public Notification(String recipient, String subject, String body) {
+            this.recipient = recipient;
+            this.subject = subject;
+            this.body = body;
+            this.createdAt = java.time.LocalDateTime.now().toString();
+        }
+
+        public String getRecipient() { return recipient; }
+        public String getSubject() { return subject; }
+        public String getBody() { return body; }
+        public String getCreatedAt() { return createdAt; }
+    }
+
+    // Delivers a batch of notifications; throwing makes the dispatcher retry the whole batch
+    private interface NotificationSink {
+        void send(java.util.List<Notification> batch) throws IOException;
+    }
+
+    // Local stand-in for an email gateway: prints what would have been sent
+    private static class LoggingNotificationSink implements NotificationSink {
+        @Override
+        public void send(java.util.List<Notification> batch) {
+            for (Notification notification : batch) {
+                System.out.println("[notify] to=" + notification.getRecipient() + " subject=" + notification.getSubject());
+            }
+        }
+    }
+
+    // Appends one line per notification to an outbox file
+    private static class FileNotificationSink implements NotificationSink {
+        private final Path file;
+
+        public FileNotificationSink(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public synchronized void send(java.util.List<Notification> batch) throws IOException {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Notification notification : batch) {
+                    out.write(notification.getCreatedAt() + "\t" + notification.getRecipient() + "\t"
+                        + notification.getSubject() + "\t" + notification.getBody());
+                    out.newLine();
+                }
+            }
+        }
+    }
+
+    // Queues confirmations off the registration path and drains them in batches on a small pool of
+    // daemon workers, retrying failed batches with exponential backoff
+    private static class NotificationDispatcher implements RegistrationListener {
+        private static final int QUEUE_CAPACITY = 100_000;
+        private static final int BATCH_SIZE = 100;
+        private static final int MAX_ATTEMPTS = 5;
+        private static final long INITIAL_BACKOFF_MILLIS = 200;
+
+        private final NotificationSink sink;
+        private final BlockingQueue<Notification> queue = new java.util.concurrent.LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        private final java.util.concurrent.ExecutorService workers;
+        private final java.util.concurrent.atomic.AtomicLong sent = new java.util.concurrent.atomic.AtomicLong();
+        private final java.util.concurrent.atomic.AtomicLong dropped = new java.util.concurrent.atomic.AtomicLong();
+        private volatile boolean running = true;
+
+        public NotificationDispatcher(NotificationSink sink, int workerCount) {
+            this.sink = sink;
+            this.workers = java.util.concurrent.Executors.newFixedThreadPool(workerCount, runnable -> {
+                Thread thread = new Thread(runnable, "notification-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int i = 0; i < workerCount; i++) {
+                workers.execute(this::drain);
+            }
+        }
+
+        // Never blocks; when the queue is full the notification is counted as dropped
+        public void enqueue(Notification notification) {
+            if (!queue.offer(notification)) {
+                dropped.incrementAndGet();
+            }
+        }
+
+        public long getSent() { return sent.get(); }
+        public long getDropped() { return dropped.get(); }
+        public int getPending() { return queue.size(); }
+
+        private void drain() {
+            java.util.List<Notification> batch = new java.util.ArrayList<>(BATCH_SIZE);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Notification first = queue.poll(500, java.util.concurrent.TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    deliver(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void deliver(java.util.List<Notification> batch) throws InterruptedException {
+            long backoff = INITIAL_BACKOFF_MILLIS;
+            while (true) {
+                try {
+                    sink.send(batch);
+                    sent.addAndGet(batch.size());
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    batch.forEach(n -> n.attempts++);
+                    if (batch.get(0).attempts >= MAX_ATTEMPTS) {
+                        dropped.addAndGet(batch.size());
+                        System.err.println("Giving up on " + batch.size() + " notifications after "
+                            + MAX_ATTEMPTS + " attempts: " + e.getMessage());
+                        return;
+                    }
+                    Thread.sleep(backoff);
+                    backoff *= 2;
+                }
+            }
+        }
+
+        // Lets the workers flush what is already queued (up to five seconds), then stops them
+        public void close() {
+            running = false;
+            workers.shutdown();
+            try {
+                workers.awaitTermination(5, java.util.concurrent.TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void eventCreated(EventData event) {
+        }
+
+        @Override
+        public void registeredElsewhere(String eventName, java.util.List<Registration> batch) {
+            // The instance that took the registration sends its confirmation
+        }
+
+        @Override
+        public void registered(String eventName, java.util.List<Registration> batch) {
+            for (Registration registration : batch) {
+                enqueue(new Notification(registration.getRollNumber(), "Registration confirmed: " + eventName,
+                    "Hi " + registration.getStudentName() + ", you are registered for " + eventName + "."));
+            }
+        }
+    }
+
+    // Headless registration rush simulator. Drives RegistrationService (the same path as the Register
+    // button) with simulated students arriving along a configurable curve, then checks the store for
+    // oversold events and duplicate registrations. Options are key=value pairs:
+    //   students=5000 threads=16 seconds=10 curve=flat|ramp|spike slots=<capacity>
+    //   event="Tech Conference 2024" duplicates=0.05 rounds=1 (rounds > 1 is a soak run)
+    private static class LoadGenerator {
+        private final int students;
+        private final int threads;
+        private final long durationMillis;
+        private final String curve;
+        private final String eventName;
+        private final int slots;
+        private final double duplicateRate;
+        private final int rounds;
+
+        private LoadGenerator(Map<String, String> options) {
+            students = Integer.parseInt(options.getOrDefault("students", "5000"));
+            threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+            durationMillis = (long) (Double.parseDouble(options.getOrDefault("seconds", "10")) * 1000);
+            curve = options.getOrDefault("curve", "spike");
+            eventName = options.getOrDefault("event", "Tech Conference 2024");
+            slots = Integer.parseInt(options.getOrDefault("slots", "-1"));
+            duplicateRate = Double.parseDouble(options.getOrDefault("duplicates", "0.05"));
+            rounds = Integer.parseInt(options.getOrDefault("rounds", "1"));
+        }
+
+        // Returns the process exit code: 0 when no invariant was violated
+        public static int run(String[] args) {
+            return new LoadGenerator(parseOptions(args)).run();
+        }
+
+        private int run() {
+            int violations = 0;
+            long baselineHeap = usedHeapAfterGc();
+            System.out.printf("Load test: %d students, %d threads, %s curve over %d ms, %d round(s)%n",
+                students, threads, curve, durationMillis, rounds);
+
+            // One store and service for all rounds, with the listeners the app attaches, so a soak run
+            // measures what the long-lived indexes, caches and notification queue retain
+            EventStore store = new InMemoryEventStore();
+            addSampleEvents(store);
+            EventData template = store.getEvent(eventName);
+            if (template == null) {
+                System.err.println("Unknown event: " + eventName);
+                return 2;
+            }
+            RegistrationService service = new RegistrationService(store);
+            NotificationDispatcher dispatcher = new NotificationDispatcher(batch -> { }, 2);
+            RegistrationIndex index = new RegistrationIndex();
+            FillRateTracker tracker = new FillRateTracker();
+            service.addListener(dispatcher);
+            service.addListener(new EventViewCache(ROSTER_CACHE_SIZE, DETAILS_CACHE_SIZE));
+            service.addListener(index);
+            service.addListener(tracker);
+
+            for (int round = 1; round <= rounds; round++) {
+                String target = eventName;
+                if (slots >= 0 || rounds > 1) {
+                    target = eventName + " (round " + round + ")";
+                    store.addEvent(new EventData(target, template.getClubName(), roundDate(template.getEventDate(), round), template.getStartTime(),
+                        template.getEndTime(), template.getEventType(), slots >= 0 ? slots : template.getInitialSlots()));
+                }
+
+                violations += runRound(round, service, store, target);
+                System.out.printf("  heap after round %d: %.1f MB (baseline %.1f MB), %d indexed, %d notifications pending%n",
+                    round, usedHeapAfterGc() / 1048576.0, baselineHeap / 1048576.0,
+                    index.view(SortKey.DATE, null).size(), dispatcher.getPending());
+            }
+            dispatcher.close();
+            System.out.printf("Notifications: %d sent, %d dropped%n", dispatcher.getSent(), dispatcher.getDropped());
+
+            long growth = usedHeapAfterGc() - baselineHeap;
+            System.out.printf("Heap growth over %d round(s): %.1f MB%n", rounds, growth / 1048576.0);
+            System.out.println(violations == 0 ? "PASS: no oversell or duplicate registrations" : "FAIL: " + violations + " violation(s)");
+            return violations == 0 ? 0 : 1;
+        }
+
+        private int runRound(int round, RegistrationService service, EventStore store, String target) {
+            // Arrival offsets from the inverse CDF of the chosen curve; duplicates re-submit an earlier roll number
+            java.util.Random random = new java.util.Random(round);
+            int attempts = students + (int) (students * duplicateRate);
+            long[] arrivals = new long[attempts];
+            String[] rollNumbers = new String[attempts];
+            for (int i = 0; i < attempts; i++) {
+                double u = random.nextDouble();
+                double position;
+                switch (curve) {
+                    case "flat": position = u; break;
+                    case "ramp": position = Math.sqrt(u); break;
+                    case "spike": position = -Math.log(1 - u * (1 - Math.exp(-10))) / 10; break;
+                    default: throw new IllegalArgumentException("Unknown curve: " + curve);
+                }
+                arrivals[i] = (long) (position * durationMillis);
+                rollNumbers[i] = i < students ? "S" + i : "S" + random.nextInt(students);
+            }
+            Integer[] order = new Integer[attempts];
+            for (int i = 0; i < attempts; i++) {
+                order[i] = i;
+            }
+            java.util.Arrays.sort(order, java.util.Comparator.comparingLong(i -> arrivals[i]));
+
+            long[] latencies = new long[attempts];
+            java.util.concurrent.atomic.AtomicInteger next = new java.util.concurrent.atomic.AtomicInteger();
+            java.util.concurrent.atomic.AtomicInteger registered = new java.util.concurrent.atomic.AtomicInteger();
+            Map<String, java.util.concurrent.atomic.AtomicInteger> rejections = new java.util.concurrent.ConcurrentHashMap<>();
+            long start = System.nanoTime();
+
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    int n;
+                    while ((n = next.getAndIncrement()) < attempts) {
+                        int i = order[n];
+                        long wait = arrivals[i] - (System.nanoTime() - start) / 1_000_000;
+                        if (wait > 0) {
+                            try {
+                                Thread.sleep(wait);
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                        }
+                        long before = System.nanoTime();
+                        BatchResult result = service.register(target, rollNumbers[i], "Student " + rollNumbers[i]);
+                        latencies[n] = System.nanoTime() - before;
+                        if (!result.getRegistered().isEmpty()) {
+                            registered.incrementAndGet();
+                        }
+                        for (Rejection rejected : result.getRejected()) {
+                            rejections.computeIfAbsent(rejected.getReason(), k -> new java.util.concurrent.atomic.AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                }, "load-" + t);
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            java.util.Arrays.sort(latencies);
+            System.out.printf("Round %d: %d attempts in %.2f s (%.0f/s), %d registered%n",
+                round, attempts, seconds, attempts / seconds, registered.get());
+            if (attempts > 0) {
+                System.out.printf("  latency p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99), latencies[attempts - 1] / 1e6);
+            }
+            rejections.forEach((reason, count) -> System.out.printf("  rejected %d: %s%n", count.get(), reason));
+
+            // Invariants: never more registrations than slots, slot count matches records, no roll number twice
+            int violations = 0;
+            EventData event = store.getEvent(target);
+            java.util.List<Registration> stored = store.getRegistrations(target);
+            if (stored.size() > event.getInitialSlots()) {
+                System.out.printf("  VIOLATION: oversold, %d registrations for %d slots%n", stored.size(), event.getInitialSlots());
+                violations++;
+            }
+            if (event.getInitialSlots() - event.getAvailableSlots() != stored.size()) {
+                System.out.printf("  VIOLATION: %d slots taken but %d registrations stored%n",
+                    event.getInitialSlots() - event.getAvailableSlots(), stored.size());
+                violations++;
+            }
+            java.util.Set<String> seen = new java.util.HashSet<>();
+            for (Registration registration : stored) {
+                if (!seen.add(registration.getRollNumber())) {
+                    System.out.printf("  VIOLATION: %s registered twice%n", registration.getRollNumber());
+                    violations++;
+                }
+            }
+            return violations;
+        }
+
+        // Each round's event falls on its own day, so students from earlier rounds do not clash with it
+        private static String roundDate(String eventDate, int round) {
+            try {
+                return java.time.LocalDate.parse(eventDate).plusDays(round - 1).toString();
+            } catch (java.time.format.DateTimeParseException e) {
+                return eventDate;
+            }
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+
+        private static long usedHeapAfterGc() {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    // Conformance and performance checks run against every EventStore backend with the same
+    // expectations. Each backend gets a fresh temporary location; the JDBC backend needs an H2
+    // driver on the classpath and is skipped with a notice when it is missing. Options:
+    //   stores=memory,file,shared,jdbc registrations=20000
+    private static class StoreConformance {
+        private final String backend;
+        private final java.util.function.Supplier<EventStore> opener;
+        private final boolean persistent;
+        private int failures;
+
+        private StoreConformance(String backend, java.util.function.Supplier<EventStore> opener, boolean persistent) {
+            this.backend = backend;
+            this.opener = opener;
+            this.persistent = persistent;
+        }
+
+        // Returns the process exit code: 0 when every check passed on every backend that ran
+        public static int run(String[] args) {
+            Map<String, String> options = parseOptions(args);
+            int registrations = Integer.parseInt(options.getOrDefault("registrations", "20000"));
+
+            int failures = 0;
+            for (String backend : options.getOrDefault("stores", "memory,file,shared,jdbc").split(",")) {
+                Path dir;
+                try {
+                    dir = Files.createTempDirectory("store-conformance-" + backend);
+                } catch (IOException e) {
+                    System.err.println("Could not create a temporary directory: " + e.getMessage());
+                    return 2;
+                }
+                StoreConformance suite;
+                switch (backend) {
+                    case "memory":
+                        suite = new StoreConformance(backend, InMemoryEventStore::new, false);
+                        break;
+                    case "file":
+                        suite = new StoreConformance(backend, () -> new FileEventStore(dir.resolve("store.log")), true);
+                        break;
+                    case "shared":
+                        suite = new StoreConformance(backend, () -> new SharedFileEventStore(dir.resolve("store.log")), true);
+                        break;
+                    case "jdbc":
+                        String url = "jdbc:h2:" + dir.resolve("store").toAbsolutePath();
+                        try {
+                            DriverManager.getDriver(url);
+                        } catch (SQLException e) {
+                            System.out.println("[jdbc] SKIPPED: no JDBC driver for " + url + " on the classpath");
+                            continue;
+                        }
+                        suite = new StoreConformance(backend, () -> new JdbcEventStore(url, 4), true);
+                        break;
+                    default:
+                        System.err.println("Unknown store type: " + backend);
+                        return 2;
+                }
+                failures += suite.runAll(registrations);
+            }
+            System.out.println(failures == 0 ? "PASS: all store checks passed" : "FAIL: " + failures + " check(s) failed");
+            return failures == 0 ? 0 : 1;
+        }
+
+        private int runAll(int registrations) {
+            try {
+                checkEvents();
+                checkRegistration();
+                checkVersions();
+                if (persistent) {
+                    checkReopen();
+                }
+                measure(registrations);
+            } catch (RuntimeException e) {
+                fail("unexpected " + e);
+            }
+            return failures;
+        }
+
+        private void check(boolean passed, String description) {
+            if (!passed) {
+                fail(description);
+            }
+        }
+
+        private void fail(String description) {
+            failures++;
+            System.out.println("[" + backend + "] FAILED: " + description);
+        }
+
+        private static java.util.List<Registration> students(String eventName, String prefix, int count) {
+            String registrationDate = java.time.LocalDateTime.now().toString();
+            java.util.List<Registration> batch = new java.util.ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(new Registration(prefix + i, "Student " + prefix + i, eventName, registrationDate));
+            }
+            return batch;
+        }
+
+        private void checkEvents() {
+            EventStore store = opener.get();
+            try {
+                store.addEvent(new EventData("Timed", "Club", "2099-05-01", "09:00", "11:30", "Talk", 10));
+                store.addEvent(new EventData("Untimed", "Club", "2099-05-02", "Workshop", 5));
+                EventData timed = store.getEvent("Timed");
+                check(timed != null && "11:30".equals(timed.getEndTime()) && timed.getAvailableSlots() == 10,
+                    "event fields are returned as added");
+                check(store.getEventNames().equals(new java.util.HashSet<>(java.util.Arrays.asList("Timed", "Untimed"))),
+                    "getEventNames lists every event");
+                check(store.getEvent("Missing") == null, "unknown events are null");
+                try {
+                    store.addEvent(new EventData("Timed", "Other", "2099-05-03", "Talk", 1));
+                    fail("duplicate event names are rejected");
+                } catch (DuplicateEventException expected) {
+                    check("Club".equals(store.getEvent("Timed").getClubName()), "a rejected duplicate leaves the event unchanged");
+                }
+                check(store.getRegistrations("Untimed").isEmpty(), "new events have no registrations");
+            } finally {
+                store.close();
+            }
+        }
+
+        private void checkRegistration() {
+            EventStore store = opener.get();
+            try {
+                store.addEvent(new EventData("Capacity", "Club", "2099-06-01", "Talk", 5));
+                long version = store.getEvent("Capacity").getVersion();
+                check(store.registerAll("Capacity", students("Capacity", "a", 6), true, version) == 0,
+                    "all-or-nothing batch larger than capacity registers nobody");
+                check(store.getEvent("Capacity").getAvailableSlots() == 5 && store.getRegistrations("Capacity").isEmpty(),
+                    "rejected batch leaves slots and registrations untouched");
+
+                version = store.getEvent("Capacity").getVersion();
+                check(store.registerAll("Capacity", students("Capacity", "b", 7), false, version) == 5,
+                    "partial batch registers up to capacity");
+                java.util.List<Registration> stored = store.getRegistrations("Capacity");
+                check(stored.size() == 5 && "b0".equals(stored.get(0).getRollNumber()) && "b4".equals(stored.get(4).getRollNumber()),
+                    "registrations come back in registration order");
+                check(store.getEvent("Capacity").getAvailableSlots() == 0, "slots are taken by registrations");
+                check(store.findRegistered("Capacity", java.util.Arrays.asList("b1", "b5", "zz"))
+                        .equals(java.util.Collections.singleton("b1")), "findRegistered reports only registered roll numbers");
+                check(store.registerAll("Missing", students("Missing", "c", 1), false, 0) == 0,
+                    "registering for an unknown event registers nobody");
+            } finally {
+                store.close();
+            }
+        }
+
+        private void checkVersions() {
+            EventStore store = opener.get();
+            try {
+                store.addEvent(new EventData("Versioned", "Club", "2099-07-01", "Talk", 10));
+                long version = store.getEvent("Versioned").getVersion();
+                store.registerAll("Versioned", students("Versioned", "v", 1), true, version);
+                check(store.getEvent("Versioned").getVersion() != version, "registering changes the event version");
+                try {
+                    store.registerAll("Versioned", students("Versioned", "w", 1), true, version);
+                    fail("a stale expected version is rejected");
+                } catch (StaleVersionException expected) {
+                    check(store.getRegistrations("Versioned").size() == 1, "a stale batch is not stored");
+                }
+            } finally {
+                store.close();
+            }
+        }
+
+        private void checkReopen() {
+            EventStore store = opener.get();
+            int before;
+            try {
+                store.addEvent(new EventData("Durable", "Club", "2099-08-01", "13:00", "14:00", "Talk", 3));
+                store.registerAll("Durable", students("Durable", "d", 2), true, store.getEvent("Durable").getVersion());
+                before = store.getEventNames().size();
+            } finally {
+                store.close();
+            }
+            store = opener.get();
+            try {
+                EventData durable = store.getEvent("Durable");
+                check(store.getEventNames().size() == before, "events survive a reopen");
+                check(durable != null && durable.getAvailableSlots() == 1 && "13:00".equals(durable.getStartTime()),
+                    "slots and times survive a reopen");
+                check(store.getRegistrations("Durable").size() == 2, "registrations survive a reopen");
+            } finally {
+                store.close();
+            }
+        }
+
+        // Throughput of batched and single registrations, roster reads and duplicate lookups
+        private void measure(int registrations) {
+            EventStore store = opener.get();
+            try {
+                store.addEvent(new EventData("Bulk", "Club", "2099-09-01", "Talk", registrations * 2));
+                java.util.List<Registration> all = students("Bulk", "p", registrations);
+
+                long started = System.nanoTime();
+                for (int from = 0; from < registrations; from += 50) {
+                    store.registerAll("Bulk", all.subList(from, Math.min(registrations, from + 50)), true,
+                        store.getEvent("Bulk").getVersion());
+                }
+                report("batched registrations (50 per batch)", registrations, started);
+
+                int singles = Math.min(registrations, 2000);
+                java.util.List<Registration> more = students("Bulk", "q", singles);
+                started = System.nanoTime();
+                for (Registration registration : more) {
+                    store.registerAll("Bulk", java.util.Collections.singletonList(registration), true,
+                        store.getEvent("Bulk").getVersion());
+                }
+                report("single registrations", singles, started);
+
+                started = System.nanoTime();
+                int read = store.getRegistrations("Bulk").size();
+                report("roster read", read, started);
+                check(read == registrations + singles, "every measured registration was stored");
+
+                java.util.List<String> probe = java.util.Arrays.asList("p0", "q1", "absent");
+                started = System.nanoTime();
+                for (int i = 0; i < 1000; i++) {
+                    store.findRegistered("Bulk", probe);
+                }
+                report("duplicate lookups (3 roll numbers each)", 1000, started);
+            } finally {
+                store.close();
+            }
+        }
+
+        private void report(String what, int count, long startedNanos) {
+            double millis = (System.nanoTime() - startedNanos) / 1e6;
+            System.out.printf("[%s] %-40s %8d in %9.1f ms (%.0f/s)%n", backend, what, count, millis, count / Math.max(millis / 1000, 1e-9));
+        }
+    }
+
+    // Bounded map that evicts the least recently used entry once it holds more than maxSize entries
+    private static class LruCache<K, V> {
+        private final Map<K, V> entries;
+
+        public LruCache(int maxSize) {
+            this.entries = new java.util.LinkedHashMap<K, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        // Returns the cached value, computing and caching it on a miss; null values are not cached
+        public synchronized V get(K key, java.util.function.Supplier<V> loader) {
+            V value = entries.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = loader.get();
+            if (value != null) {
+                entries.put(key, value);
+            }
+            return value;
+        }
+
+        public synchronized void invalidateIf(java.util.function.Predicate<K> predicate) {
+            entries.keySet().removeIf(predicate);
+        }
+    }
+
+    // Preformatted text for the event details panel on the Register card
+    private static class EventDetailsView {
+        private final String clubLine;
+        private final String dateLine;
+        private final String typeLine;
+        private final String slotsLine;
+
+        public EventDetailsView(EventData event) {
+            clubLine = "Club: " + event.getClubName();
+            dateLine = "Date: " + event.getEventDate() + (event.hasTimeWindow() ? ", " + event.getTimeWindow() : "");
+            typeLine = "Type: " + event.getEventType();
+            slotsLine = "Available Slots: " + event.getAvailableSlots();
+        }
+
+        public String getClubLine() { return clubLine; }
+        public String getDateLine() { return dateLine; }
+        public String getTypeLine() { return typeLine; }
+        public String getSlotsLine() { return slotsLine; }
+    }
+
+    // Read-through caches of per-event rosters (one per sort order) and details view models.
+    // Only the entries of the event that changed are dropped when it is created or registered for.
+    private static class EventViewCache implements RegistrationListener {
+        private final LruCache<Map.Entry<String, SortKey>, java.util.List<Registration>> rosters;
+        private final LruCache<String, EventDetailsView> details;
+
+        public EventViewCache(int rosterSize, int detailsSize) {
+            rosters = new LruCache<>(rosterSize);
+            details = new LruCache<>(detailsSize);
+        }
+
+        public java.util.List<Registration> getRoster(String eventName, SortKey sortKey,
+                                                      java.util.function.Supplier<java.util.List<Registration>> loader) {
+            return rosters.get(new java.util.AbstractMap.SimpleImmutableEntry<>(eventName, sortKey), loader);
+        }
+
+        public EventDetailsView getDetails(String eventName, java.util.function.Supplier<EventDetailsView> loader) {
+            return details.get(eventName, loader);
+        }
+
+        public void invalidateEvent(String eventName) {
+            rosters.invalidateIf(key -> key.getKey().equals(eventName));
+            details.invalidateIf(eventName::equals);
+        }
+
+        @Override
+        public void eventCreated(EventData event) {
+            invalidateEvent(event.getEventName());
+        }
+
+        @Override
+        public void registered(String eventName, java.util.List<Registration> batch) {
+            invalidateEvent(eventName);
+        }
+    }
+
+    // Per-club and per-event-type summaries, including distinct students, which needs every registration.
+    // Each event's totals are cached with the event version they were read at, so a rerun only rescans
+    // events registered for since; the scans and the merge of group totals run on a fork/join pool.
+    // Each group's distinct-student count is cached with its members' versions and only recounted
+    // when one of them was rescanned.
+    private static class ReportEngine {
+        private static final int EVENTS_PER_TASK = 16;
+        private static final int TOP_EVENTS = 3;
+
+        private final EventStore store;
+        private final java.util.concurrent.ForkJoinPool pool;
+        private final Map<String, EventTotals> eventTotals = new java.util.concurrent.ConcurrentHashMap<>();
+        private final Map<String, GroupStudents> groupStudents = new java.util.concurrent.ConcurrentHashMap<>();
+
+        // One group's distinct students, with the version of every member event they were counted at
+        private static class GroupStudents {
+            private final Map<String, Long> memberVersions;
+            private final int students;
+
+            GroupStudents(Map<String, Long> memberVersions, int students) {
+                this.memberVersions = memberVersions;
+                this.students = students;
+            }
+        }
+
+        public ReportEngine(EventStore store, int parallelism) {
+            this.store = store;
+            this.pool = new java.util.concurrent.ForkJoinPool(parallelism);
+        }
+
+        public Report generate() {
+            long started = System.nanoTime();
+            java.util.List<EventData> events = new java.util.ArrayList<>(store.getEvents());
+            java.util.concurrent.atomic.AtomicInteger rescanned = new java.util.concurrent.atomic.AtomicInteger();
+            GroupTotalsByKey totals = pool.invoke(new AggregateTask(events, 0, events.size(), rescanned));
+            java.util.List<GroupSummary> byClub = totals.sorted(totals.byClub);
+            java.util.List<GroupSummary> byType = totals.sorted(totals.byType);
+
+            Map<String, GroupSummary> recount = new java.util.LinkedHashMap<>();
+            Map<String, Map<String, Long>> versions = new HashMap<>();
+            for (GroupSummary group : byClub) {
+                versions.put("club:" + group.getGroup(), group.memberVersions());
+            }
+            for (GroupSummary group : byType) {
+                versions.put("type:" + group.getGroup(), group.memberVersions());
+            }
+            groupStudents.keySet().retainAll(versions.keySet());
+            for (GroupSummary group : byClub) {
+                reuseStudents("club:" + group.getGroup(), group, versions, recount);
+            }
+            for (GroupSummary group : byType) {
+                reuseStudents("type:" + group.getGroup(), group, versions, recount);
+            }
+            pool.submit(() -> recount.values().parallelStream().forEach(GroupSummary::countStudents)).join();
+            recount.forEach((key, group) -> groupStudents.put(key, new GroupStudents(versions.get(key), group.getStudents())));
+            return new Report(byClub, byType, events.size(), rescanned.get(), (System.nanoTime() - started) / 1_000_000);
+        }
+
+        public void close() {
+            pool.shutdown();
+        }
+
+        // Takes the cached count when no member changed; otherwise queues the group for recounting
+        private void reuseStudents(String key, GroupSummary group, Map<String, Map<String, Long>> versions,
+                                   Map<String, GroupSummary> recount) {
+            GroupStudents cached = groupStudents.get(key);
+            if (cached != null && cached.memberVersions.equals(versions.get(key))) {
+                group.students = cached.students;
+            } else {
+                recount.put(key, group);
+            }
+        }
+
+        private EventTotals totalsFor(EventData event, java.util.concurrent.atomic.AtomicInteger rescanned) {
+            // Read the version first: registrations landing mid-scan leave a stale stamp, forcing a rescan next time
+            long version = event.getVersion();
+            EventTotals cached = eventTotals.get(event.getEventName());
+            if (cached != null && cached.version == version) {
+                return cached;
+            }
+            // Only the roll numbers are collected while the store holds its lock; hashing, sorting and
+            // de-duplicating happen outside it, so registrations are not blocked for the whole scan
+            java.util.List<String> rollNumbers = new java.util.ArrayList<>(event.getInitialSlots() - event.getAvailableSlots());
+            store.forEachRegistration(event.getEventName(), registration -> rollNumbers.add(registration.getRollNumber()));
+            EventTotals totals = new EventTotals(event, rollNumbers, version);
+            eventTotals.put(event.getEventName(), totals);
+            rescanned.incrementAndGet();
+            return totals;
+        }
+
+        // 64-bit FNV-1a; a collision between two roll numbers in one group is vanishingly unlikely
+        private static long studentKey(String rollNumber) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < rollNumber.length(); i++) {
+                hash ^= rollNumber.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private class AggregateTask extends java.util.concurrent.RecursiveTask<GroupTotalsByKey> {
+            private final java.util.List<EventData> events;
+            private final int from;
+            private final int to;
+            private final java.util.concurrent.atomic.AtomicInteger rescanned;
+
+            AggregateTask(java.util.List<EventData> events, int from, int to, java.util.concurrent.atomic.AtomicInteger rescanned) {
+                this.events = events;
+                this.from = from;
+                this.to = to;
+                this.rescanned = rescanned;
+            }
+
+            @Override
+            protected GroupTotalsByKey compute() {
+                if (to - from <= EVENTS_PER_TASK) {
+                    GroupTotalsByKey totals = new GroupTotalsByKey();
+                    for (EventData event : events.subList(from, to)) {
+                        totals.add(totalsFor(event, rescanned));
+                    }
+                    return totals;
+                }
+                int middle = (from + to) >>> 1;
+                AggregateTask left = new AggregateTask(events, from, middle, rescanned);
+                left.fork();
+                GroupTotalsByKey right = new AggregateTask(events, middle, to, rescanned).compute();
+                return left.join().merge(right);
+            }
+        }
+
+        // Header and rows shared by the exported file: one row per club and per event type
+        public static void writeCsv(Writer out, Report report) throws IOException {
+            out.write("dimension,group,events,registrations,students,capacity,fill_percent,top_events\n");
+            writeCsvRows(out, "club", report.getByClub());
+            writeCsvRows(out, "type", report.getByType());
+            out.flush();
+        }
+
+        private static void writeCsvRows(Writer out, String dimension, java.util.List<GroupSummary> groups) throws IOException {
+            for (GroupSummary group : groups) {
+                out.write(String.join(",", dimension, csvField(group.getGroup()), String.valueOf(group.getEvents()),
+                    String.valueOf(group.getRegistrations()), String.valueOf(group.getStudents()), String.valueOf(group.getCapacity()),
+                    String.format(java.util.Locale.ROOT, "%.1f", group.getFillPercent()), csvField(group.describeTopEvents())));
+                out.write('\n');
+            }
+        }
+
+        private static String csvField(String value) {
+            if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+    }
+
+    // One event's counts and sorted, distinct student keys, stamped with the event version they were taken at.
+    // Keys take 8 bytes per student, so caching them costs far less heap than the registrations themselves.
+    private static class EventTotals {
+        private final String eventName;
+        private final String clubName;
+        private final String eventType;
+        private final int registrations;
+        private final int capacity;
+        private final long[] studentKeys;
+        private final long version;
+
+        public EventTotals(EventData event, java.util.List<String> rollNumbers, long version) {
+            this.eventName = event.getEventName();
+            this.clubName = event.getClubName();
+            this.eventType = event.getEventType();
+            this.registrations = rollNumbers.size();
+            this.capacity = event.getInitialSlots();
+            this.version = version;
+            long[] keys = new long[rollNumbers.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ReportEngine.studentKey(rollNumbers.get(i));
+            }
+            java.util.Arrays.sort(keys);
+            this.studentKeys = java.util.Arrays.copyOf(keys, distinctPrefix(keys));
+        }
+
+        // Moves the distinct values of a sorted array to its front and returns how many there are
+        private static int distinctPrefix(long[] sorted) {
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return distinct;
+        }
+
+        public String getEventName() { return eventName; }
+        public int getRegistrations() { return registrations; }
+    }
+
+    // Partial result of one fork/join task: group totals keyed by club and by event type
+    private static class GroupTotalsByKey {
+        private final Map<String, GroupSummary> byClub = new HashMap<>();
+        private final Map<String, GroupSummary> byType = new HashMap<>();
+
+        void add(EventTotals totals) {
+            byClub.computeIfAbsent(totals.clubName, GroupSummary::new).add(totals);
+            byType.computeIfAbsent(totals.eventType, GroupSummary::new).add(totals);
+        }
+
+        GroupTotalsByKey merge(GroupTotalsByKey other) {
+            other.byClub.forEach((key, group) -> byClub.merge(key, group, GroupSummary::merge));
+            other.byType.forEach((key, group) -> byType.merge(key, group, GroupSummary::merge));
+            return this;
+        }
+
+        java.util.List<GroupSummary> sorted(Map<String, GroupSummary> groups) {
+            java.util.List<GroupSummary> list = new java.util.ArrayList<>(groups.values());
+            list.sort(java.util.Comparator.comparingLong(GroupSummary::getRegistrations).reversed()
+                .thenComparing(GroupSummary::getGroup));
+            return list;
+        }
+    }
+
+    // Totals for one club or event type, with its most registered-for events
+    private static class GroupSummary {
+        private static final java.util.Comparator<EventTotals> TOP_ORDER =
+            java.util.Comparator.comparingInt(EventTotals::getRegistrations).reversed().thenComparing(EventTotals::getEventName);
+
+        private final String group;
+        private int events;
+        private long registrations;
+        private long capacity;
+        private int students;
+        private final java.util.List<EventTotals> members = new java.util.ArrayList<>();
+        private final java.util.List<EventTotals> topEvents = new java.util.ArrayList<>();
+
+        public GroupSummary(String group) {
+            this.group = group;
+        }
+
+        void add(EventTotals totals) {
+            events++;
+            registrations += totals.registrations;
+            capacity += totals.capacity;
+            members.add(totals);
+            offerTop(totals);
+        }
+
+        GroupSummary merge(GroupSummary other) {
+            events += other.events;
+            registrations += other.registrations;
+            capacity += other.capacity;
+            members.addAll(other.members);
+            other.topEvents.forEach(this::offerTop);
+            return this;
+        }
+
+        Map<String, Long> memberVersions() {
+            Map<String, Long> versions = new HashMap<>();
+            for (EventTotals member : members) {
+                versions.put(member.eventName, member.version);
+            }
+            return versions;
+        }
+
+        // Students registered for any of the group's events, counted once each
+        void countStudents() {
+            int total = 0;
+            for (EventTotals member : members) {
+                total += member.studentKeys.length;
+            }
+            long[] keys = new long[total];
+            int offset = 0;
+            for (EventTotals member : members) {
+                System.arraycopy(member.studentKeys, 0, keys, offset, member.studentKeys.length);
+                offset += member.studentKeys.length;
+            }
+            java.util.Arrays.sort(keys);
+            students = EventTotals.distinctPrefix(keys);
+        }
+
+        private void offerTop(EventTotals totals) {
+            topEvents.add(totals);
+            topEvents.sort(TOP_ORDER);
+            if (topEvents.size() > ReportEngine.TOP_EVENTS) {
+                topEvents.remove(topEvents.size() - 1);
+            }
+        }
+
+        public String getGroup() { return group; }
+        public int getEvents() { return events; }
+        public long getRegistrations() { return registrations; }
+        public long getCapacity() { return capacity; }
+        public int getStudents() { return students; }
+
+        public double getFillPercent() {
+            return capacity == 0 ? 0 : registrations * 100.0 / capacity;
+        }
+
+        public String describeTopEvents() {
+            StringBuilder text = new StringBuilder();
+            for (EventTotals totals : topEvents) {
+                if (text.length() > 0) {
+                    text.append("; ");
+                }
+                text.append(totals.eventName).append(" (").append(totals.registrations).append(')');
+            }
+            return text.toString();
+        }
+    }
+
+    private static class Report {
+        private final java.util.List<GroupSummary> byClub;
+        private final java.util.List<GroupSummary> byType;
+        private final int eventsCovered;
+        private final int eventsRescanned;
+        private final long elapsedMillis;
+
+        public Report(java.util.List<GroupSummary> byClub, java.util.List<GroupSummary> byType,
+                      int eventsCovered, int eventsRescanned, long elapsedMillis) {
+            this.byClub = byClub;
+            this.byType = byType;
+            this.eventsCovered = eventsCovered;
+            this.eventsRescanned = eventsRescanned;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public java.util.List<GroupSummary> getByClub() { return byClub; }
+        public java.util.List<GroupSummary> getByType() { return byType; }
+        public int getEventsCovered() { return eventsCovered; }
+        public int getEventsRescanned() { return eventsRescanned; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
 }